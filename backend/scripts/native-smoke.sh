@@ -0,0 +1,87 @@
+#!/usr/bin/env bash
+# Smoke test of the native image against H2, plus startup time and RSS next to the JVM jar.
+#
+#   mvn -Pnative -DskipTests package native:compile      (GraalVM 22.3+ as JAVA_HOME)
+#   ./scripts/native-smoke.sh [native|jvm|both]          (from backend/, default both; the JVM run uses JAVA_HOME)
+#
+# Each build is started on a fresh in-memory H2 database, driven through the paths that depend on
+# native hints (entities and projections as JSON, ZXing/ImageIO PNG QR codes, ImageIO JPEG menu
+# images, the JCache second-level cache), then stopped. RSS is read after the smoke requests.
+set -euo pipefail
+
+MODE=${1:-both}
+cd "$(dirname "$0")/.."
+PORT=${PORT:-18080}
+BASE="http://localhost:$PORT"
+WORK=target/native-smoke
+mkdir -p "$WORK"
+ARGS=(--server.port="$PORT" --spring.datasource.url="jdbc:h2:mem:smoke;DB_CLOSE_DELAY=-1"
+      --spring.datasource.driverClassName=org.h2.Driver --spring.datasource.username=sa
+      --spring.datasource.password= --spring.jpa.show-sql=false --app.rate-limit.enabled=false)
+
+fail() { echo "FAIL: $*" >&2; exit 1; }
+first_id() { grep -o "\"$1\":[0-9]*" | head -1 | cut -d: -f2; }
+json_post() { curl -sf -H 'Content-Type: application/json' -d "$2" "$BASE$1"; }
+# expect <path> <pattern> <what>: GET must succeed and the body must match
+expect() {
+  local body
+  body=$(curl -sf "$BASE$1") || fail "$3"
+  grep -q "$2" <<< "$body" || fail "$3"
+}
+
+smoke() {
+  curl -sf "$BASE/api/test/health" >/dev/null || fail "health"
+  local user admin restaurant item order qr
+  # Seed data is applied by a runner just after the startup line
+  for _ in $(seq 1 50); do
+    user=$(json_post /api/auth/login '{"email":"user@example.com","password":"password"}' | first_id userId || true)
+    [ -n "$user" ] && break
+    sleep 0.2
+  done
+  admin=$(json_post /api/auth/login '{"email":"admin@example.com","password":"admin123"}' | first_id userId)
+  [ -n "$user" ] && [ -n "$admin" ] || fail "login"
+  restaurant=$(curl -sf "$BASE/api/restaurants" | first_id id)
+  item=$(curl -sf "$BASE/api/restaurants/$restaurant/menu" | first_id id)
+  [ -n "$item" ] || fail "menu"
+  order=$(json_post /api/orders "{\"userId\":$user,\"restaurantId\":$restaurant,\"paymentMethod\":\"QR\",
+          \"deliveryAddress\":\"1 Smoke St\",\"items\":[{\"menuItemId\":$item,\"quantity\":2}]}")
+  grep -q '"paymentQrCode":"data:image/png;base64,' <<< "$order" || fail "order QR code: $order"
+  local order_id
+  order_id=$(echo "$order" | first_id orderId)
+  expect "/api/orders/user/$user/history?limit=5" "\"id\":$order_id" "order history"
+  expect "/api/orders/$order_id?userId=$user" '"items"' "order detail"
+  expect "/api/admin/orders?userId=$admin" "\"id\":$order_id" "admin orders"
+  # Re-encode the QR PNG as a menu image: PNG decode + JPEG encode through ImageIO
+  qr=$(curl -sf "$BASE/api/test/qr?orderId=1&amount=10" | sed -n 's/.*"qrCode":"data:image\/png;base64,\([^"]*\)".*/\1/p')
+  echo "$qr" | base64 -d > "$WORK/qr.png"
+  curl -sf -F "file=@$WORK/qr.png" "$BASE/api/admin/menu/$item/image?userId=$admin" >/dev/null || fail "menu image upload"
+  expect "/actuator/prometheus" 'hibernate_second_level_cache_puts_total{[^}]*region="restaurants"} [1-9]' "second-level cache"
+}
+
+run() {
+  local name=$1; shift
+  local log="$WORK/$name.log"
+  "$@" "${ARGS[@]}" > "$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 600); do
+    if grep -q "Started BackendApplication" "$log"; then break; fi
+    kill -0 "$pid" 2>/dev/null || fail "$name did not start, see $log"
+    sleep 0.1
+  done
+  local started
+  started=$(sed -n 's/.*Started BackendApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+  smoke || { kill "$pid"; exit 1; }
+  local rss
+  rss=$(awk '/VmRSS/ {printf "%d", $2 / 1024}' "/proc/$pid/status")
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  printf '%-7s started in %6.3fs   RSS after smoke %5d MB   smoke OK\n' "$name" "$started" "$rss"
+}
+
+if [ "$MODE" != jvm ]; then
+  [ -x target/backend ] || fail "target/backend missing; build it with mvn -Pnative -DskipTests package native:compile"
+  run native target/backend
+fi
+if [ "$MODE" != native ]; then
+  JAR=$(ls target/backend-*.jar | grep -v original | head -1)
+  run jvm "${JAVA_HOME:+$JAVA_HOME/bin/}java" -jar "$JAR"
+fi
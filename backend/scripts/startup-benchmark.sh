@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Startup-time benchmark: default JVM start vs the faststart profile, with Spring AOT and with AppCDS.
+# Runs against an H2 file database under target/startup-bench, so no MySQL is needed.
+#
+#   ./scripts/startup-benchmark.sh [runs]      (from backend/, default 5 runs per mode)
+#   MVN=mvn ./scripts/startup-benchmark.sh     (use an installed Maven instead of the wrapper)
+#
+# Reports the "Started BackendApplication in X seconds" time of every run and the median per mode.
+set -euo pipefail
+
+RUNS=${1:-5}
+cd "$(dirname "$0")/.."
+WORK=target/startup-bench
+DB="jdbc:h2:file:$(pwd)/$WORK/db;DB_CLOSE_DELAY=-1"
+DB_ARGS=(--spring.datasource.url="$DB" --spring.datasource.driverClassName=org.h2.Driver
+         --spring.datasource.username=sa --spring.datasource.password= --server.port=0
+         --spring.jpa.show-sql=false)
+
+${MVN:-sh ./mvnw} -B -q -Pfaststart package -DskipTests
+JAR=$(ls target/backend-*.jar | grep -v original | head -1)
+rm -rf "$WORK" && mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted" >/dev/null
+EXTRACTED="$WORK/extracted/$(basename "$JAR")"
+
+# Starts the app, waits for the startup line, stops it and prints the reported seconds.
+start_once() {
+  local log="$WORK/run.log"
+  java "$@" > "$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1 600); do
+    if grep -q "Started BackendApplication" "$log"; then break; fi
+    if ! kill -0 "$pid" 2>/dev/null; then echo "startup failed, see $log" >&2; exit 1; fi
+    sleep 0.1
+  done
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  sed -n 's/.*Started BackendApplication in \([0-9.]*\) seconds.*/\1/p' "$log"
+}
+
+measure() {
+  local name=$1; shift
+  local times=()
+  for _ in $(seq 1 "$RUNS"); do
+    times+=("$(start_once "$@")")
+  done
+  local median
+  median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+  printf '%-28s median %6.3fs   runs: %s\n' "$name" "$median" "${times[*]}"
+}
+
+# First start creates the schema and applies the seed steps; every measured start finds them done.
+start_once -jar "$JAR" "${DB_ARGS[@]}" >/dev/null
+
+# AppCDS training run: records the classes loaded up to context refresh.
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+  -jar "$EXTRACTED" --spring.profiles.active=faststart "${DB_ARGS[@]}" > "$WORK/training.log" 2>&1 || true
+
+measure "default"                  -jar "$JAR" "${DB_ARGS[@]}"
+measure "faststart"                -jar "$JAR" --spring.profiles.active=faststart "${DB_ARGS[@]}"
+measure "faststart + AOT"          -Dspring.aot.enabled=true -jar "$JAR" --spring.profiles.active=faststart "${DB_ARGS[@]}"
+measure "faststart + AOT + AppCDS" -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true \
+                                   -jar "$EXTRACTED" --spring.profiles.active=faststart "${DB_ARGS[@]}"
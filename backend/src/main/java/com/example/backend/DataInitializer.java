@@ -4,133 +4,145 @@ import com.example.backend.model.DeliveryDriver;
 import com.example.backend.model.MenuItem;
 import com.example.backend.model.Restaurant;
 import com.example.backend.model.Role;
+import com.example.backend.model.SeedVersion;
 import com.example.backend.model.User;
 import com.example.backend.repository.DeliveryDriverRepository;
 import com.example.backend.repository.MenuItemRepository;
 import com.example.backend.repository.RestaurantRepository;
+import com.example.backend.repository.SeedVersionRepository;
 import com.example.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds demo data as numbered steps. Each step runs once per database, in its own transaction
+ * together with its {@link SeedVersion} row, so a started database costs a single SELECT on
+ * boot. Steps must stay idempotent (another node may apply the same step concurrently; the loser
+ * rolls back on the primary key) and must never be edited once released: add a new step instead.
+ * <p>
+ * Demo passwords are stored as precomputed BCrypt hashes, so seeding does no hashing at startup.
+ */
 @Configuration
 public class DataInitializer {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
+    // BCrypt (cost 10) of "password", "admin123" and "driver123"
+    private static final String USER_PASSWORD_HASH = "$2a$10$474ruIHNle77/OlhqUAJ4uB4c4f3DqR1yE.RUanUS8yx893eOro6K";
+    private static final String ADMIN_PASSWORD_HASH = "$2a$10$UC1rhmIiGTUxpUlW0yQ9/eacIG2GMGQjbvS4ez4zrTUXYwOmN/ZLW";
+    private static final String DRIVER_PASSWORD_HASH = "$2a$10$AbYQjy9EhL4hc7/lE7Ff5ODCYWSMtl6ahnUguDjpgQw/Vxjh50T0G";
+
+    private record Seed(int version, String description, Runnable apply) {
+    }
+
     @Bean
     CommandLineRunner init(RestaurantRepository restaurantRepository,
                           MenuItemRepository menuItemRepository,
                           UserRepository userRepository,
-                          DeliveryDriverRepository deliveryDriverRepository) {
+                          DeliveryDriverRepository deliveryDriverRepository,
+                          SeedVersionRepository seedVersionRepository,
+                          PlatformTransactionManager transactionManager) {
+        List<Seed> seeds = List.of(
+                new Seed(1, "demo restaurant and menu",
+                        () -> seedRestaurant(restaurantRepository, menuItemRepository)),
+                new Seed(2, "demo user, admin and driver accounts",
+                        () -> seedAccounts(userRepository, deliveryDriverRepository)));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
         return args -> {
-            if (restaurantRepository.count() == 0) {
-                Restaurant r1 = new Restaurant();
-                r1.setName("Pasta Palace");
-                r1.setCuisine("Italian");
-                r1.setAddress("123 Main St");
-                r1.setContact("555-0100");
-                r1.setRating(4.5);
-                restaurantRepository.save(r1);
+            Set<Integer> applied = seedVersionRepository.findAll().stream()
+                    .map(SeedVersion::getVersion)
+                    .collect(Collectors.toSet());
+            for (Seed seed : seeds) {
+                if (applied.contains(seed.version())) {
+                    continue;
+                }
+                try {
+                    transaction.executeWithoutResult(status -> {
+                        seed.apply().run();
+                        seedVersionRepository.saveAndFlush(
+                                new SeedVersion(seed.version(), seed.description(), LocalDateTime.now()));
+                    });
+                    log.info("Applied seed {}: {}", seed.version(), seed.description());
+                } catch (DataIntegrityViolationException e) {
+                    log.info("Seed {} was applied concurrently by another node", seed.version());
+                }
+            }
+        };
+    }
 
-                MenuItem m1 = new MenuItem();
-                m1.setName("Spaghetti Carbonara");
-                m1.setDescription("Classic with egg and pancetta");
-                m1.setPrice(12.5);
-                m1.setRestaurant(r1);
-                menuItemRepository.save(m1);
+    private static void seedRestaurant(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository) {
+        if (restaurantRepository.count() > 0) {
+            return;
+        }
+        Restaurant r1 = new Restaurant();
+        r1.setName("Pasta Palace");
+        r1.setCuisine("Italian");
+        r1.setAddress("123 Main St");
+        r1.setContact("555-0100");
+        r1.setRating(4.5);
+        restaurantRepository.save(r1);
 
-                MenuItem m2 = new MenuItem();
-                m2.setName("Margherita Pizza");
-                m2.setDescription("Tomato, mozzarella, basil");
-                m2.setPrice(10.0);
-                m2.setRestaurant(r1);
-                menuItemRepository.save(m2);
-            }
+        MenuItem m1 = new MenuItem();
+        m1.setName("Spaghetti Carbonara");
+        m1.setDescription("Classic with egg and pancetta");
+        m1.setPrice(12.5);
+        m1.setRestaurant(r1);
+        menuItemRepository.save(m1);
 
-            BCryptPasswordEncoder enc = new BCryptPasswordEncoder();
-            userRepository.findByEmail("user@example.com").ifPresentOrElse(existing -> {
-                boolean updated = false;
-                if (!enc.matches("password", existing.getPassword())) {
-                    existing.setPassword(enc.encode("password"));
-                    updated = true;
-                }
-                Set<Role> roles = existing.getRoles() == null ? new HashSet<>() : new HashSet<>(existing.getRoles());
-                if (roles.add(Role.ROLE_USER)) {
-                    existing.setRoles(roles);
-                    updated = true;
-                }
-                if (updated) {
-                    userRepository.save(existing);
-                }
-            }, () -> {
-                User u = new User();
-                u.setName("Test User");
-                u.setEmail("user@example.com");
-                u.setPassword(enc.encode("password"));
-                u.setPhone("555-0001");
-                u.setAddress("456 Elm St");
-                u.setRoles(Set.of(Role.ROLE_USER));
-                userRepository.save(u);
-            });
+        MenuItem m2 = new MenuItem();
+        m2.setName("Margherita Pizza");
+        m2.setDescription("Tomato, mozzarella, basil");
+        m2.setPrice(10.0);
+        m2.setRestaurant(r1);
+        menuItemRepository.save(m2);
+    }
 
-            userRepository.findByEmail("admin@example.com").ifPresentOrElse(existing -> {
-                boolean updated = false;
-                if (!enc.matches("admin123", existing.getPassword())) {
-                    existing.setPassword(enc.encode("admin123"));
-                    updated = true;
-                }
-                Set<Role> roles = existing.getRoles() == null ? new HashSet<>() : new HashSet<>(existing.getRoles());
-                if (roles.add(Role.ROLE_ADMIN)) {
-                    existing.setRoles(roles);
-                    updated = true;
-                }
-                if (updated) {
-                    userRepository.save(existing);
-                }
-            }, () -> {
-                User admin = new User();
-                admin.setName("Admin");
-                admin.setEmail("admin@example.com");
-                admin.setPassword(enc.encode("admin123"));
-                admin.setPhone("555-9999");
-                admin.setAddress("HQ");
-                admin.setRoles(Set.of(Role.ROLE_ADMIN));
-                userRepository.save(admin);
-            });
+    private static void seedAccounts(UserRepository userRepository, DeliveryDriverRepository deliveryDriverRepository) {
+        upsertAccount(userRepository, "user@example.com", "Test User", USER_PASSWORD_HASH,
+                "555-0001", "456 Elm St", Role.ROLE_USER);
+        upsertAccount(userRepository, "admin@example.com", "Admin", ADMIN_PASSWORD_HASH,
+                "555-9999", "HQ", Role.ROLE_ADMIN);
+        User driverUser = upsertAccount(userRepository, "driver@example.com", "Delivery Driver", DRIVER_PASSWORD_HASH,
+                "555-2000", "Warehouse", Role.ROLE_DRIVER);
+        ensureDriverProfile(driverUser, deliveryDriverRepository);
+    }
 
-            userRepository.findByEmail("driver@example.com").ifPresentOrElse(existing -> {
-                boolean updated = false;
-                if (!enc.matches("driver123", existing.getPassword())) {
-                    existing.setPassword(enc.encode("driver123"));
-                    updated = true;
-                }
-                Set<Role> roles = existing.getRoles() == null ? new HashSet<>() : new HashSet<>(existing.getRoles());
-                if (roles.add(Role.ROLE_DRIVER)) {
-                    existing.setRoles(roles);
-                    updated = true;
-                }
-                if (updated) {
-                    userRepository.save(existing);
-                }
-                ensureDriverProfile(existing, deliveryDriverRepository);
-            }, () -> {
-                User driverUser = new User();
-                driverUser.setName("Delivery Driver");
-                driverUser.setEmail("driver@example.com");
-                driverUser.setPassword(enc.encode("driver123"));
-                driverUser.setPhone("555-2000");
-                driverUser.setAddress("Warehouse");
-                driverUser.setRoles(Set.of(Role.ROLE_DRIVER));
-                User saved = userRepository.save(driverUser);
-                ensureDriverProfile(saved, deliveryDriverRepository);
-            });
-        };
+    /**
+     * Creates the account, or resets an existing one to the demo password and adds the role.
+     */
+    private static User upsertAccount(UserRepository userRepository, String email, String name, String passwordHash,
+                                      String phone, String address, Role role) {
+        return userRepository.findByEmail(email).map(existing -> {
+            existing.setPassword(passwordHash);
+            Set<Role> roles = existing.getRoles() == null ? new HashSet<>() : new HashSet<>(existing.getRoles());
+            roles.add(role);
+            existing.setRoles(roles);
+            return userRepository.save(existing);
+        }).orElseGet(() -> {
+            User user = new User();
+            user.setName(name);
+            user.setEmail(email);
+            user.setPassword(passwordHash);
+            user.setPhone(phone);
+            user.setAddress(address);
+            user.setRoles(Set.of(role));
+            return userRepository.save(user);
+        });
     }
 
-    private void ensureDriverProfile(User user, DeliveryDriverRepository deliveryDriverRepository) {
+    private static void ensureDriverProfile(User user, DeliveryDriverRepository deliveryDriverRepository) {
         deliveryDriverRepository.findByUserId(user.getId()).ifPresentOrElse(driver -> {
             boolean updated = false;
             if (driver.getName() == null || driver.getName().isBlank()) {
@@ -0,0 +1,80 @@
+package com.example.backend.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AIMD concurrency limit. A fast response while the limit is at least half used raises the limit by
+ * 1/limit (about one per round of requests); a slow or failed response multiplies it by the backoff
+ * ratio, at most once per latency threshold so a single slow batch does not collapse it. Requests over
+ * the limit are rejected instead of queued, which keeps latency near the threshold under overload.
+ * Lock-free: the in-flight count and the limit (as double bits) are plain atomics.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastBackoff = new AtomicLong(System.nanoTime());
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                               long latencyThresholdNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        double initial = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initial));
+    }
+
+    double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    boolean tryAcquire() {
+        int limit = (int) limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean backoff = failed || latencyNanos > latencyThresholdNanos;
+        if (backoff) {
+            long now = System.nanoTime();
+            long last = lastBackoff.get();
+            if (now - last < latencyThresholdNanos || !lastBackoff.compareAndSet(last, now)) {
+                return;
+            }
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            if (backoff) {
+                next = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBefore * 2 >= limit) {
+                next = Math.min(maxLimit, limit + 1 / limit);
+            } else {
+                return;
+            }
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
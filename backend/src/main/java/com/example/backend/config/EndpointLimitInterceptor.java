@@ -0,0 +1,195 @@
+package com.example.backend.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Applies one {@link RateLimitProperties.Rule}: first the caller's token bucket (429 with Retry-After
+ * when empty), then the endpoint's adaptive concurrency limit (503 when full). Callers are keyed by
+ * client IP, never by the userId parameter, which any client can set. A rule with a body key adds that
+ * field of the JSON body (buffered by {@link RequestBodyCachingFilter}), so users behind one NAT do not
+ * share a login bucket; its optional per-IP bucket is checked first, so cycling through body values from
+ * one IP is still limited. Every decision is counted in {@code http.limiter.decisions}, tagged by endpoint,
+ * limiter and outcome.
+ */
+class EndpointLimitInterceptor implements HandlerInterceptor {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int MAX_KEY_FIELD_LENGTH = 320;
+
+    private final String method;
+    private final String bodyKey;
+    private final TokenBucketLimiter ipRateLimiter;
+    private final TokenBucketLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final String startAttribute;
+    private final Counter ipRateAllowed;
+    private final Counter ipRateRejected;
+    private final Counter rateAllowed;
+    private final Counter rateRejected;
+    private final Counter concurrencyAllowed;
+    private final Counter concurrencyRejected;
+
+    EndpointLimitInterceptor(RateLimitProperties.Rule rule, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.method = rule.method() == null || rule.method().isBlank() ? null : rule.method();
+        this.bodyKey = rule.bodyKey() == null || rule.bodyKey().isBlank() ? null : rule.bodyKey();
+        this.startAttribute = EndpointLimitInterceptor.class.getName() + "." + rule.name();
+        this.ipRateLimiter = rule.ipPermitsPerSecond() > 0
+                ? new TokenBucketLimiter(rule.ipPermitsPerSecond(), rule.ipBurst(), properties.maxKeys())
+                : null;
+        this.rateLimiter = rule.permitsPerSecond() > 0
+                ? new TokenBucketLimiter(rule.permitsPerSecond(), rule.burst(), properties.maxKeys())
+                : null;
+        RateLimitProperties.Concurrency concurrency = properties.concurrency();
+        this.concurrencyLimiter = rule.latencyThreshold() != null
+                ? new AdaptiveConcurrencyLimiter(concurrency.initialLimit(), concurrency.minLimit(),
+                concurrency.maxLimit(), concurrency.backoffRatio(), rule.latencyThreshold().toNanos())
+                : null;
+
+        this.ipRateAllowed = decisionCounter(meterRegistry, rule.name(), "ip-rate", "allowed");
+        this.ipRateRejected = decisionCounter(meterRegistry, rule.name(), "ip-rate", "rejected");
+        this.rateAllowed = decisionCounter(meterRegistry, rule.name(), "rate", "allowed");
+        this.rateRejected = decisionCounter(meterRegistry, rule.name(), "rate", "rejected");
+        this.concurrencyAllowed = decisionCounter(meterRegistry, rule.name(), "concurrency", "allowed");
+        this.concurrencyRejected = decisionCounter(meterRegistry, rule.name(), "concurrency", "rejected");
+        if (ipRateLimiter != null) {
+            Gauge.builder("http.limiter.rate.keys", ipRateLimiter, TokenBucketLimiter::size)
+                    .description("Callers with a partly used token bucket")
+                    .tag("endpoint", rule.name() + "-ip")
+                    .register(meterRegistry);
+        }
+        if (rateLimiter != null) {
+            Gauge.builder("http.limiter.rate.keys", rateLimiter, TokenBucketLimiter::size)
+                    .description("Callers with a partly used token bucket")
+                    .tag("endpoint", rule.name())
+                    .register(meterRegistry);
+        }
+        if (concurrencyLimiter != null) {
+            Gauge.builder("http.limiter.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("endpoint", rule.name())
+                    .register(meterRegistry);
+            Gauge.builder("http.limiter.concurrency.in.flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                    .description("Requests currently admitted by the concurrency limiter")
+                    .tag("endpoint", rule.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String endpoint, String limiter, String outcome) {
+        return Counter.builder("http.limiter.decisions")
+                .description("Requests admitted or rejected by the endpoint limiters")
+                .tag("endpoint", endpoint)
+                .tag("limiter", limiter)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        if (ipRateLimiter != null) {
+            long waitNanos = ipRateLimiter.tryAcquire(ipKey(request), System.nanoTime());
+            if (waitNanos > 0) {
+                ipRateRejected.increment();
+                tooManyRequests(response, waitNanos);
+                return false;
+            }
+            ipRateAllowed.increment();
+        }
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(callerKey(request), System.nanoTime());
+            if (waitNanos > 0) {
+                rateRejected.increment();
+                tooManyRequests(response, waitNanos);
+                return false;
+            }
+            rateAllowed.increment();
+        }
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                concurrencyRejected.increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "server busy, please retry");
+                return false;
+            }
+            concurrencyAllowed.increment();
+            request.setAttribute(startAttribute, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (concurrencyLimiter != null && request.getAttribute(startAttribute) instanceof Long start) {
+            request.removeAttribute(startAttribute);
+            concurrencyLimiter.release(System.nanoTime() - start, ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private static String ipKey(HttpServletRequest request) {
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String callerKey(HttpServletRequest request) {
+        String ip = ipKey(request);
+        if (bodyKey == null || !(request.getAttribute(RequestBodyCachingFilter.BODY_ATTRIBUTE) instanceof byte[] body)) {
+            return ip;
+        }
+        String value = bodyField(body, bodyKey);
+        if (value == null || value.isBlank()) {
+            return ip;
+        }
+        value = value.trim().toLowerCase(Locale.ROOT);
+        return ip + "|" + bodyKey + ":" + value.substring(0, Math.min(value.length(), MAX_KEY_FIELD_LENGTH));
+    }
+
+    /**
+     * Returns the scalar value of a top-level field of a JSON object, or null if the body is not one or lacks the field.
+     */
+    static String bodyField(byte[] body, String field) {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                } else if (name.equals(field)) {
+                    return value.isScalarValue() && value != JsonToken.VALUE_NULL ? parser.getValueAsString() : null;
+                }
+            }
+        } catch (IOException e) {
+            // Malformed body: key by IP only and let the controller reject it
+        }
+        return null;
+    }
+
+    private static void tooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, "too many requests");
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String error)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\"}");
+    }
+}
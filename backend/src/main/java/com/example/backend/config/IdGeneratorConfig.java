@@ -0,0 +1,20 @@
+package com.example.backend.config;
+
+import com.example.backend.model.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hands the node id and clock-skew tolerance to {@link TimeOrderedIdGenerator}, which
+ * Hibernate instantiates itself. Runs during context startup, before the first insert.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    public IdGeneratorConfig(@Value("${app.ids.node-id:0}") int nodeId,
+                             @Value("${app.ids.max-clock-skew:1s}") Duration maxClockSkew) {
+        TimeOrderedIdGenerator.configure(nodeId, maxClockSkew.toMillis());
+    }
+}
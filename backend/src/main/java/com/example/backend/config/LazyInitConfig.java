@@ -0,0 +1,39 @@
+package com.example.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * With spring.main.lazy-initialization=true (the faststart profile) beans are created on first use,
+ * which would silently switch off anything nobody asks for: scheduled jobs, event listeners and
+ * beans that register themselves in {@code @PostConstruct} (e.g. the outbox listener). Those, and
+ * {@link IdGeneratorConfig}, which must run before the first insert, stay eager.
+ */
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundWorkExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                beanType != null && (IdGeneratorConfig.class.isAssignableFrom(beanType) || hasStartupHook(beanType));
+    }
+
+    private static boolean hasStartupHook(Class<?> beanType) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                    || AnnotatedElementUtils.hasAnnotation(method, EventListener.class)
+                    || method.isAnnotationPresent(PostConstruct.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Replaces Boot's default Jackson converter with one that records how long
+     * response bodies take to serialize, so slow payloads show up separately
+     * from controller and repository time in http.server.requests.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        Timer serializationTimer = Timer.builder("http.json.serialization")
+                .description("Time to serialize response bodies to JSON")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(serializationTimer);
+                }
+            }
+        };
+    }
+}
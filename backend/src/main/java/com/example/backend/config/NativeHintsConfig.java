@@ -0,0 +1,91 @@
+package com.example.backend.config;
+
+import com.example.backend.model.ArchivedOrder;
+import com.example.backend.model.ArchivedOrderItem;
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.DriverLocation;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Order;
+import com.example.backend.model.OrderEvent;
+import com.example.backend.model.OrderItem;
+import com.example.backend.model.Promotion;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.SeedVersion;
+import com.example.backend.model.TimeOrderedIdGenerator;
+import com.example.backend.model.User;
+import com.example.backend.service.DriverLocationService;
+import com.example.backend.service.EtaService;
+import com.example.backend.service.MenuImportService;
+import com.example.backend.service.OrderService;
+import com.example.backend.service.PaymentReconciliationService;
+import com.example.backend.service.PricingService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile) that Spring AOT cannot
+ * infer on its own. Spring Data already registers the repository projection proxies. Ignored on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static final Class<?>[] ENTITIES = {
+            ArchivedOrder.class, ArchivedOrderItem.class, DeliveryDriver.class, DriverLocation.class, MenuItem.class,
+            Order.class, OrderEvent.class, OrderItem.class, Promotion.class, Restaurant.class, SeedVersion.class,
+            User.class
+    };
+
+    // Serialized by Jackson from Map/ResponseEntity<?> bodies, so not visible in controller signatures
+    static final Class<?>[] RESPONSE_TYPES = {
+            PricingService.Quote.class, EtaService.Eta.class, DriverLocationService.Position.class,
+            DriverLocationService.IngestResult.class, DriverLocationService.Ping.class,
+            MenuImportService.ImportReport.class, MenuImportService.RowError.class,
+            PaymentReconciliationService.ReconciliationReport.class, OrderService.HistoryPage.class
+    };
+
+    // ImageIO plugins used for QR codes (PNG) and menu images (JPEG); looked up through the IIORegistry
+    static final String[] IMAGEIO_PLUGINS = {
+            "com.sun.imageio.plugins.png.PNGImageReaderSpi", "com.sun.imageio.plugins.png.PNGImageWriterSpi",
+            "com.sun.imageio.plugins.jpeg.JPEGImageReaderSpi", "com.sun.imageio.plugins.jpeg.JPEGImageWriterSpi",
+            "com.sun.imageio.plugins.gif.GIFImageReaderSpi", "com.sun.imageio.plugins.bmp.BMPImageReaderSpi",
+            "com.sun.imageio.plugins.wbmp.WBMPImageReaderSpi", "com.sun.imageio.spi.InputStreamImageInputStreamSpi",
+            "com.sun.imageio.spi.OutputStreamImageOutputStreamSpi", "com.sun.imageio.spi.FileImageInputStreamSpi",
+            "com.sun.imageio.spi.FileImageOutputStreamSpi", "com.sun.imageio.spi.RAFImageInputStreamSpi",
+            "com.sun.imageio.spi.RAFImageOutputStreamSpi"
+    };
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate creates the id generator named by @IdGeneratorType reflectively
+            hints.reflection().registerType(TimeOrderedIdGenerator.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            binding.registerReflectionHints(hints.reflection(), RESPONSE_TYPES);
+
+            // ZXing itself uses no reflection; MatrixToImageWriter hands the QR bitmap to ImageIO
+            for (String plugin : IMAGEIO_PLUGINS) {
+                hints.reflection().registerType(TypeReference.of(plugin), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+
+            // Second-level cache: Hibernate loads the JCache provider by name, Caffeine reads application.conf
+            hints.reflection().registerType(
+                    TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("application.conf");
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
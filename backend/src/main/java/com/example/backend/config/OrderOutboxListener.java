@@ -0,0 +1,95 @@
+package com.example.backend.config;
+
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.Order;
+import com.example.backend.model.OrderEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes an {@link OrderEvent} outbox row for every inserted order and for every flushed change of an
+ * order's status, payment status or driver. The rows go through the flushing session's own JDBC
+ * connection, so they commit or roll back together with the order change no matter which service
+ * or controller made it. Bulk JPQL updates bypass these callbacks and write their events themselves
+ * (see OrderService).
+ */
+@Component
+public class OrderOutboxListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OrderOutboxListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Order order) {
+            write(event.getSession(), List.of(OrderEvent.of(OrderEvent.PLACED, order)));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Order order) || event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        List<OrderEvent> events = new ArrayList<>(1);
+        if (!Objects.equals(oldState[persister.getPropertyIndex("status")], order.getStatus())) {
+            events.add(OrderEvent.of(OrderEvent.STATUS_CHANGED, order));
+        }
+        if (!Objects.equals(oldState[persister.getPropertyIndex("paymentStatus")], order.getPaymentStatus())) {
+            events.add(OrderEvent.of(OrderEvent.PAYMENT_CHANGED, order));
+        }
+        Object oldDriver = oldState[persister.getPropertyIndex("driver")];
+        Long oldDriverId = oldDriver instanceof DeliveryDriver driver ? driver.getId() : null;
+        Long newDriverId = order.getDriver() != null ? order.getDriver().getId() : null;
+        if (!Objects.equals(oldDriverId, newDriverId)) {
+            events.add(OrderEvent.of(OrderEvent.DRIVER_CHANGED, order));
+        }
+        if (!events.isEmpty()) {
+            write(event.getSession(), events);
+        }
+    }
+
+    private void write(EventSource session, List<OrderEvent> events) {
+        try (StatelessSession outbox = session.getFactory().withStatelessOptions()
+                .connection(session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection())
+                .openStatelessSession()) {
+            for (OrderEvent event : events) {
+                outbox.insert(event);
+            }
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
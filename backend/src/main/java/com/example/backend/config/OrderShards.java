@@ -0,0 +1,64 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Knows how many order shards there are and which shard the current thread works on.
+ * Shard 0 is the main datasource (which also holds the catalog tables); app.sharding.shard-urls
+ * adds shards 1..n. Orders are placed by a hash of their id, so an order's shard is known
+ * from its id alone. Without extra shards everything runs on shard 0.
+ */
+@Component
+public class OrderShards {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    public OrderShards(@Value("${app.sharding.shard-urls:}") List<String> shardUrls) {
+        this.shardCount = 1 + (int) shardUrls.stream().filter(url -> !url.isBlank()).count();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(long orderId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        // Mix the bits first: time-ordered ids are not uniformly distributed in their low bits
+        long h = orderId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(h ^ (h >>> 32), (long) shardCount);
+    }
+
+    /**
+     * Runs the callback with every connection it opens routed to the given shard.
+     */
+    public <T> T callOnShard(int shard, Supplier<T> callback) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return callback.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+
+    static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-endpoint limits ({@code app.rate-limit.*}). Each rule matches one path pattern, optionally for a
+ * single HTTP method, and can carry a token bucket (per client IP, optionally split by a field of the
+ * JSON body) and an adaptive concurrency limit.
+ */
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") int maxKeys,
+                                  @DefaultValue Concurrency concurrency,
+                                  List<Rule> rules) {
+
+    public RateLimitProperties {
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    /**
+     * @param permitsPerSecond sustained rate per key; 0 disables the token bucket
+     * @param burst            requests a key may make at once after being idle
+     * @param latencyThreshold responses slower than this shrink the concurrency limit; unset disables it
+     * @param bodyKey          top-level JSON body field (e.g. email) whose value is added to the client IP
+     *                         to form the bucket key; unset keys by IP alone
+     * @param ipPermitsPerSecond sustained rate of a second bucket keyed by client IP alone, checked before the
+     *                         body-keyed one so one IP cannot get a fresh bucket per field value; 0 disables it
+     * @param ipBurst          requests an IP may make at once in that bucket
+     */
+    public record Rule(String name,
+                       String method,
+                       String path,
+                       double permitsPerSecond,
+                       @DefaultValue("1") int burst,
+                       Duration latencyThreshold,
+                       String bodyKey,
+                       double ipPermitsPerSecond,
+                       @DefaultValue("1") int ipBurst) {
+    }
+
+    public record Concurrency(@DefaultValue("20") int initialLimit,
+                              @DefaultValue("2") int minLimit,
+                              @DefaultValue("200") int maxLimit,
+                              @DefaultValue("0.9") double backoffRatio) {
+    }
+}
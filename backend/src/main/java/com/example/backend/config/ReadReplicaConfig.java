@@ -0,0 +1,84 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Splits database traffic between the primary (spring.datasource) and a read replica
+ * (app.datasource.replica) when a replica URL is configured. Read-only transactions
+ * are sent to the replica unless {@link ReadReplicaContext} says the current request
+ * must see the primary; everything else goes to the primary. Not available together with
+ * order sharding (see {@link ShardingConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+@Conditional(ReadReplicaConfig.NotSharded.class)
+public class ReadReplicaConfig {
+
+    /**
+     * Steps aside when ShardingConfig is active (same test as its condition), so that it can fail
+     * startup with a clear message instead of the two clashing over the dataSource beans.
+     */
+    static class NotSharded implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            String shardUrls = context.getEnvironment().getProperty("app.sharding.shard-urls");
+            return shardUrls == null || "false".equalsIgnoreCase(shardUrls);
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReadReplicaContext readReplicaContext) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(readReplicaContext);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        // Defer picking the physical connection until the first statement, when the
+        // transaction's read-only flag is known
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Hand the connection back after every transaction instead of holding it for the whole
+     * open-in-view request, so each transaction in a request is routed on its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides per request whether read-only queries may go to the replica.
+ * Only GET requests are eligible, so load-then-save flows always read the primary.
+ * A user who wrote recently (within the configured replica lag tolerance) keeps
+ * reading from the primary so they see their own order immediately.
+ */
+@Component
+public class ReadReplicaContext {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final long maxLagMillis;
+
+    public ReadReplicaContext(@Value("${app.datasource.replica.max-lag:2s}") Duration maxLag) {
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    public void beginRequest(boolean readOnlyRequest, Long userId) {
+        replicaAllowed.set(readOnlyRequest && !wroteRecently(userId));
+    }
+
+    public void endRequest() {
+        replicaAllowed.remove();
+    }
+
+    public boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(replicaAllowed.get());
+    }
+
+    /**
+     * Wraps a query that will run on another thread so it gets this request's replica decision there.
+     */
+    public <T> Supplier<T> propagate(Supplier<T> query) {
+        boolean allowed = isReplicaAllowed();
+        return () -> {
+            replicaAllowed.set(allowed);
+            try {
+                return query.get();
+            } finally {
+                replicaAllowed.remove();
+            }
+        };
+    }
+
+    /**
+     * Records a write by the given user; their reads stick to the primary until the replica has caught up.
+     */
+    public void markWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWriteByUser.put(userId, now);
+        if (lastWriteByUser.size() > PRUNE_THRESHOLD) {
+            lastWriteByUser.values().removeIf(writtenAt -> now - writtenAt > maxLagMillis);
+        }
+    }
+
+    private boolean wroteRecently(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteByUser.get(userId);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= maxLagMillis;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds the {@link ReadReplicaContext} for each API request, using the userId request
+ * parameter or path variable to apply read-your-writes stickiness. Async handlers hand the
+ * decision to their worker threads with {@link ReadReplicaContext#propagate}; the servlet thread
+ * is unbound as soon as it is released, and bound again for the async dispatch.
+ */
+class ReadReplicaInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReadReplicaContext readReplicaContext;
+
+    ReadReplicaInterceptor(ReadReplicaContext readReplicaContext) {
+        this.readReplicaContext = readReplicaContext;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        readReplicaContext.beginRequest("GET".equalsIgnoreCase(request.getMethod()), resolveUserId(request));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        readReplicaContext.endRequest();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        readReplicaContext.endRequest();
+    }
+
+    @SuppressWarnings("unchecked")
+    static Long resolveUserId(HttpServletRequest request) {
+        String value = request.getParameter("userId");
+        if (value == null) {
+            Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            if (pathVariables instanceof Map<?, ?> variables) {
+                value = ((Map<String, String>) variables).get("userId");
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica when the current request allows it,
+ * and everything else (writes, non-transactional lazy loads) to the primary.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReadReplicaContext readReplicaContext;
+
+    ReplicaRoutingDataSource(ReadReplicaContext readReplicaContext) {
+        this.readReplicaContext = readReplicaContext;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && readReplicaContext.isReplicaAllowed() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers the request body for the rate-limit rules that key callers by a body field
+ * ({@link RateLimitProperties.Rule#bodyKey()}), so the limiter can read the field before the controller
+ * and the controller still gets the whole body. At most {@link #MAX_CACHED_BYTES} are buffered; a longer
+ * body is passed through unchanged and its caller is keyed without the field.
+ */
+class RequestBodyCachingFilter extends OncePerRequestFilter {
+
+    /** Request attribute holding the buffered body as a byte[]; absent when the body was too long. */
+    static final String BODY_ATTRIBUTE = RequestBodyCachingFilter.class.getName() + ".body";
+
+    private static final int MAX_CACHED_BYTES = 16 * 1024;
+
+    private record Target(String method, PathPattern path) {
+    }
+
+    private final List<Target> targets = new ArrayList<>();
+
+    RequestBodyCachingFilter(List<RateLimitProperties.Rule> rules) {
+        for (RateLimitProperties.Rule rule : rules) {
+            if (rule.bodyKey() != null && !rule.bodyKey().isBlank()) {
+                String method = rule.method() == null || rule.method().isBlank() ? null : rule.method();
+                targets.add(new Target(method, PathPatternParser.defaultInstance.parse(rule.path())));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (targets.isEmpty()) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Target target : targets) {
+            if ((target.method() == null || target.method().equalsIgnoreCase(request.getMethod()))
+                    && target.path().matches(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        byte[] head = request.getInputStream().readNBytes(MAX_CACHED_BYTES + 1);
+        boolean complete = head.length <= MAX_CACHED_BYTES;
+        if (complete) {
+            request.setAttribute(BODY_ATTRIBUTE, head);
+        }
+        chain.doFilter(new ReplayingRequest(request, head, complete), response);
+    }
+
+    /**
+     * Serves the buffered bytes first and then whatever is left of the original body.
+     */
+    private static final class ReplayingRequest extends HttpServletRequestWrapper {
+        private final byte[] head;
+        private final boolean complete;
+        private ServletInputStream stream;
+
+        ReplayingRequest(HttpServletRequest request, byte[] head, boolean complete) {
+            super(request);
+            this.head = head;
+            this.complete = complete;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new ReplayingInputStream(new ByteArrayInputStream(head), super.getInputStream(), complete);
+            }
+            return stream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+
+    private static final class ReplayingInputStream extends ServletInputStream {
+        private final ByteArrayInputStream head;
+        private final ServletInputStream rest;
+        private final boolean complete;
+
+        ReplayingInputStream(ByteArrayInputStream head, ServletInputStream rest, boolean complete) {
+            this.head = head;
+            this.rest = rest;
+            this.complete = complete;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = head.read();
+            return b >= 0 ? b : rest.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int n = head.read(buffer, offset, length);
+            return n > 0 ? n : rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return head.available() == 0 && rest.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return head.available() > 0 || rest.isReady();
+        }
+
+        /**
+         * A fully buffered body is already in memory, so the listener is told at once that it can read
+         * all of it. Otherwise the original stream drives the listener, and reads serve the head first.
+         */
+        @Override
+        public void setReadListener(ReadListener listener) {
+            if (!complete) {
+                rest.setReadListener(listener);
+                return;
+            }
+            try {
+                if (head.available() > 0) {
+                    listener.onDataAvailable();
+                }
+                listener.onAllDataRead();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+    }
+}
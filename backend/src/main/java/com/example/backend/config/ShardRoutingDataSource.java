@@ -0,0 +1,31 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.List;
+
+/**
+ * Hands out connections for the shard bound by {@link OrderShards#callOnShard}.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> ownedPools;
+
+    ShardRoutingDataSource(List<HikariDataSource> ownedPools) {
+        this.ownedPools = ownedPools;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return OrderShards.currentShard();
+    }
+
+    /**
+     * Closes the extra shard pools; shard 0 is a bean of its own and closed by the container.
+     */
+    @Override
+    public void close() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.relational.SchemaManager;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spreads the orders/order_item tables over several databases when app.sharding.shard-urls
+ * is set. spring.datasource stays shard 0 and is the only database with catalog rows (users,
+ * restaurants, menu_items, delivery_drivers); orders reference them by id without a foreign key
+ * and OrderService reads them from shard 0. Every extra shard needs the order tables, which
+ * app.sharding.create-schema creates at startup for empty development and test databases.
+ * Not combined with the read replica setup: startup fails if both are configured.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "shard-urls")
+public class ShardingConfig {
+
+    public ShardingConfig(@Value("${app.datasource.replica.jdbc-url:}") String replicaUrl) {
+        if (!replicaUrl.isBlank()) {
+            // Replica routing picks the replica or primary of shard 0 only; shards 1..n have no replica
+            throw new IllegalStateException("app.sharding.shard-urls and app.datasource.replica.jdbc-url are both set;"
+                    + " order sharding does not support a read replica, configure one or the other");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+                                                  DataSourceProperties properties,
+                                                  MeterRegistry meterRegistry,
+                                                  @Value("${app.sharding.shard-urls}") List<String> shardUrls,
+                                                  @Value("${app.sharding.maximum-pool-size:10}") int maximumPoolSize) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(0, primaryDataSource);
+        List<HikariDataSource> shardPools = new ArrayList<>();
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            int shard = shardPools.size() + 1;
+            HikariDataSource shardDataSource = new HikariDataSource();
+            shardDataSource.setPoolName("FoodDeliveryShard" + shard);
+            shardDataSource.setJdbcUrl(url.trim());
+            shardDataSource.setUsername(properties.determineUsername());
+            shardDataSource.setPassword(properties.determinePassword());
+            shardDataSource.setDriverClassName(properties.determineDriverClassName());
+            shardDataSource.setMaximumPoolSize(maximumPoolSize);
+            shardDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shardPools.add(shardDataSource);
+            targets.put(shard, shardDataSource);
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(shardPools);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        // Defer picking the physical connection until the first statement, inside the shard scope
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Creates the mapped tables on shards 1..n, like spring.jpa.hibernate.ddl-auto does on shard 0.
+     * Runs once all beans exist, before the application's startup tasks touch the shards.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.sharding", name = "create-schema", havingValue = "true")
+    SmartInitializingSingleton shardSchemaCreator(EntityManagerFactory entityManagerFactory, OrderShards orderShards) {
+        return () -> {
+            SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < orderShards.shardCount(); shard++) {
+                orderShards.callOnShard(shard, () -> {
+                    schemaManager.exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+
+    /**
+     * Release the connection after every transaction so one request can talk to several shards.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
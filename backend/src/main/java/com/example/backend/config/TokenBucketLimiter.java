@@ -0,0 +1,66 @@
+package com.example.backend.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by caller, kept as a single long per key (the generic cell rate algorithm):
+ * the time at which the bucket would be full again. Taking a permit pushes that time forward by one
+ * interval with a compare-and-set, so there are no locks and no refill timers. A key whose bucket is
+ * full is indistinguishable from an unknown key, which is what makes pruning safe.
+ */
+final class TokenBucketLimiter {
+
+    private static final long PRUNE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextPrune = new AtomicLong(System.nanoTime());
+
+    TokenBucketLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.maxKeys = maxKeys;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Takes a permit for the key. Returns 0 on success, otherwise the nanoseconds until a permit is available.
+     */
+    long tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                prune(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = (full - now > 0 ? full : now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops keys whose bucket has refilled, at most once a second.
+     */
+    private void prune(long now) {
+        long due = nextPrune.get();
+        if (now - due < 0 || !nextPrune.compareAndSet(due, now + PRUNE_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
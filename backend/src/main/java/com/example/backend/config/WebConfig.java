@@ -1,15 +1,24 @@
 package com.example.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class WebConfig {
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(ReadReplicaContext readReplicaContext,
+                                           RateLimitProperties rateLimitProperties,
+                                           MeterRegistry meterRegistry) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
@@ -20,6 +29,24 @@ public class WebConfig {
                         .exposedHeaders("*")
                         .allowCredentials(true);
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                // Limiters run first so rejected requests cost as little as possible
+                if (rateLimitProperties.enabled()) {
+                    for (RateLimitProperties.Rule rule : rateLimitProperties.rules()) {
+                        registry.addInterceptor(new EndpointLimitInterceptor(rule, rateLimitProperties, meterRegistry))
+                                .addPathPatterns(rule.path());
+                    }
+                }
+                registry.addInterceptor(new ReadReplicaInterceptor(readReplicaContext))
+                        .addPathPatterns("/api/**");
+            }
         };
     }
+
+    @Bean
+    public OncePerRequestFilter requestBodyCachingFilter(RateLimitProperties rateLimitProperties) {
+        return new RequestBodyCachingFilter(rateLimitProperties.enabled() ? rateLimitProperties.rules() : List.of());
+    }
 }
@@ -4,16 +4,32 @@ import com.example.backend.model.DeliveryDriver;
 import com.example.backend.model.MenuItem;
 import com.example.backend.model.Order;
 import com.example.backend.model.OrderItem;
+import com.example.backend.model.Promotion;
 import com.example.backend.model.Restaurant;
 import com.example.backend.service.DeliveryDriverService;
+import com.example.backend.service.DriverLocationService;
+import com.example.backend.service.EtaService;
+import com.example.backend.service.KitchenLoadService;
+import com.example.backend.service.MenuImageService;
+import com.example.backend.service.MenuImportService;
 import com.example.backend.service.MenuItemService;
+import com.example.backend.service.OrderArchiveService;
+import com.example.backend.service.OrderExpiryService;
 import com.example.backend.service.OrderService;
+import com.example.backend.service.PaymentReconciliationService;
+import com.example.backend.service.PricingService;
 import com.example.backend.service.RestaurantService;
 import com.example.backend.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,17 +49,44 @@ public class AdminController {
     private final RestaurantService restaurantService;
     private final MenuItemService menuItemService;
     private final DeliveryDriverService deliveryDriverService;
+    private final PaymentReconciliationService paymentReconciliationService;
+    private final OrderExpiryService orderExpiryService;
+    private final MenuImportService menuImportService;
+    private final MenuImageService menuImageService;
+    private final DriverLocationService driverLocationService;
+    private final EtaService etaService;
+    private final PricingService pricingService;
+    private final OrderArchiveService orderArchiveService;
+    private final KitchenLoadService kitchenLoadService;
 
     public AdminController(UserService userService,
                            OrderService orderService,
                            RestaurantService restaurantService,
                            MenuItemService menuItemService,
-                           DeliveryDriverService deliveryDriverService) {
+                           DeliveryDriverService deliveryDriverService,
+                           PaymentReconciliationService paymentReconciliationService,
+                           OrderExpiryService orderExpiryService,
+                           MenuImportService menuImportService,
+                           MenuImageService menuImageService,
+                           DriverLocationService driverLocationService,
+                           EtaService etaService,
+                           PricingService pricingService,
+                           OrderArchiveService orderArchiveService,
+                           KitchenLoadService kitchenLoadService) {
         this.userService = userService;
         this.orderService = orderService;
         this.restaurantService = restaurantService;
         this.menuItemService = menuItemService;
         this.deliveryDriverService = deliveryDriverService;
+        this.paymentReconciliationService = paymentReconciliationService;
+        this.orderExpiryService = orderExpiryService;
+        this.menuImportService = menuImportService;
+        this.menuImageService = menuImageService;
+        this.driverLocationService = driverLocationService;
+        this.etaService = etaService;
+        this.pricingService = pricingService;
+        this.orderArchiveService = orderArchiveService;
+        this.kitchenLoadService = kitchenLoadService;
     }
 
     @GetMapping("/orders")
@@ -80,6 +123,18 @@ public class AdminController {
         return ResponseEntity.ok(payload);
     }
 
+    @GetMapping("/drivers/{driverId}/trail")
+    public ResponseEntity<?> driverTrail(@PathVariable Long driverId,
+                                         @RequestParam Long userId,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        return ResponseEntity.ok(driverLocationService.trail(driverId,
+                since != null ? since : LocalDateTime.now().minusHours(1)));
+    }
+
     @PatchMapping("/orders/{orderId}")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long orderId,
                                                @RequestParam Long userId,
@@ -92,6 +147,9 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "order not found"));
         }
         Order order = orderOpt.get();
+        if (order.isArchived()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "order is archived"));
+        }
     DeliveryDriver previousDriver = order.getDriver();
     DeliveryDriver nextDriver = null;
 
@@ -143,6 +201,7 @@ public class AdminController {
         }
 
         orderService.save(order);
+        kitchenLoadService.onStatusChange(order.getId(), order.getStatus());
         return ResponseEntity.ok(toOrderView(order));
     }
 
@@ -188,6 +247,7 @@ public class AdminController {
         restaurant.setAddress(payload.getAddress());
         restaurant.setContact(payload.getContact());
         restaurant.setRating(payload.getRating());
+        restaurant.setKitchenCapacity(payload.getKitchenCapacity());
         Restaurant saved = restaurantService.save(restaurant);
         return ResponseEntity.ok(saved);
     }
@@ -200,6 +260,10 @@ public class AdminController {
         if (restaurantService.findById(restaurantId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "restaurant not found"));
         }
+        // Orders reference restaurants without a foreign key (they may be on another shard), so check here
+        if (orderService.hasOrdersForRestaurant(restaurantId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "restaurant has orders"));
+        }
         restaurantService.delete(restaurantId);
         return ResponseEntity.noContent().build();
     }
@@ -221,6 +285,27 @@ public class AdminController {
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    @PostMapping("/restaurants/{restaurantId}/menu/import")
+    public ResponseEntity<?> importMenu(@PathVariable Long restaurantId,
+                                        @RequestParam Long userId,
+                                        @RequestParam(defaultValue = "true") boolean deleteMissing,
+                                        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                        InputStream body) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        Optional<Restaurant> restaurantOpt = restaurantService.findById(restaurantId);
+        if (restaurantOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "restaurant not found"));
+        }
+        boolean csv = contentType != null && contentType.toLowerCase().contains("csv");
+        try {
+            return ResponseEntity.ok(menuImportService.importMenu(restaurantOpt.get(), body, csv, deleteMissing));
+        } catch (IOException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "could not read menu file: " + ex.getMessage()));
+        }
+    }
+
     @PutMapping("/menu/{menuItemId}")
     public ResponseEntity<?> updateMenuItem(@PathVariable Long menuItemId,
                                             @RequestParam Long userId,
@@ -241,6 +326,30 @@ public class AdminController {
         return ResponseEntity.ok(saved);
     }
 
+    @PostMapping("/menu/{menuItemId}/image")
+    public ResponseEntity<?> uploadMenuImage(@PathVariable Long menuItemId,
+                                             @RequestParam Long userId,
+                                             @RequestParam("file") MultipartFile file) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        Optional<MenuItem> menuItemOpt = menuItemService.findById(menuItemId);
+        if (menuItemOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "menu item not found"));
+        }
+        String hash;
+        try {
+            hash = menuImageService.store(file.getBytes());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "could not store image"));
+        }
+        MenuItem menuItem = menuItemOpt.get();
+        menuItem.setUploadedImage(hash);
+        return ResponseEntity.ok(menuItemService.save(menuItem));
+    }
+
     @DeleteMapping("/menu/{menuItemId}")
     public ResponseEntity<?> deleteMenuItem(@PathVariable Long menuItemId, @RequestParam Long userId) {
         if (!userService.isAdmin(userId)) {
@@ -249,6 +358,9 @@ public class AdminController {
         if (menuItemService.findById(menuItemId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "menu item not found"));
         }
+        if (!orderService.findOrderedMenuItemIds(List.of(menuItemId)).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "menu item has been ordered"));
+        }
         menuItemService.delete(menuItemId);
         return ResponseEntity.noContent().build();
     }
@@ -265,18 +377,83 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "order not found"));
         }
         Order order = orderOpt.get();
+        if (order.isArchived()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "order is archived"));
+        }
         String paymentStatus = body.get("paymentStatus");
         if (paymentStatus != null && !paymentStatus.isBlank()) {
             order.setPaymentStatus(paymentStatus.toUpperCase());
             orderService.save(order);
+            kitchenLoadService.onPaymentChange(order.getId(), order.getPaymentStatus());
+            if (!"PENDING".equals(order.getPaymentStatus())) {
+                orderExpiryService.cancel(order.getId());
+            } else if (!"COD".equalsIgnoreCase(order.getPaymentMethod())) {
+                // Back to unpaid: the order expires on its original deadline unless it is paid by then
+                orderExpiryService.schedule(order.getId(), order.getOrderDate());
+            }
         }
         return ResponseEntity.ok(toOrderView(order));
     }
 
+    @PostMapping("/payments/reconcile")
+    public ResponseEntity<?> reconcilePayments(@RequestParam Long userId) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        try {
+            return ResponseEntity.ok(paymentReconciliationService.reconcileInbox());
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (IOException ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "could not read settlement inbox"));
+        }
+    }
+
+    @PostMapping("/orders/archive")
+    public ResponseEntity<?> archiveOrders(@RequestParam Long userId) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        return ResponseEntity.ok(Map.of("archived", orderArchiveService.archive()));
+    }
+
+    @GetMapping("/promotions")
+    public ResponseEntity<?> listPromotions(@RequestParam Long userId) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        return ResponseEntity.ok(pricingService.findAllPromotions());
+    }
+
+    @PostMapping("/promotions")
+    public ResponseEntity<?> createPromotion(@RequestParam Long userId, @RequestBody Promotion payload) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        payload.setId(null);
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(pricingService.savePromotion(payload));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/promotions/{promotionId}")
+    public ResponseEntity<?> deactivatePromotion(@PathVariable Long promotionId, @RequestParam Long userId) {
+        if (!userService.isAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "admin privileges required"));
+        }
+        if (!pricingService.deactivatePromotion(promotionId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "promotion not found"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     private Map<String, Object> toDriverView(DeliveryDriver driver) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", driver.getId());
         map.put("name", driver.getName());
+        driverLocationService.latest(driver.getId()).ifPresent(position -> map.put("location", position));
         if (driver.getUser() != null) {
             map.put("user", Map.of(
                     "id", driver.getUser().getId(),
@@ -293,6 +470,7 @@ public class AdminController {
         map.put("totalAmount", order.getTotalAmount());
         map.put("deliveryAddress", order.getDeliveryAddress());
         map.put("orderDate", order.getOrderDate());
+        etaService.estimate(order).ifPresent(eta -> map.put("eta", eta));
     map.put("paymentStatus", order.getPaymentStatus());
     map.put("paymentMethod", order.getPaymentMethod());
     map.put("paymentQrCode", order.getPaymentQrCode());
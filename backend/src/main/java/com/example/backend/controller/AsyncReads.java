@@ -0,0 +1,35 @@
+package com.example.backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Error mapping for handlers that return a future from {@link com.example.backend.service.OrderQueryService}.
+ */
+final class AsyncReads {
+
+    private AsyncReads() {
+    }
+
+    /**
+     * A full read queue or a read past its timeout becomes 503 with Retry-After, like the load shedder's
+     * answer; any other failure is rethrown for the usual error handling.
+     */
+    static ResponseEntity<?> failed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException || cause instanceof TimeoutException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "server busy, please retry"));
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        throw new CompletionException(cause);
+    }
+}
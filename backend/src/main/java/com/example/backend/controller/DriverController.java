@@ -4,6 +4,10 @@ import com.example.backend.model.DeliveryDriver;
 import com.example.backend.model.Order;
 import com.example.backend.model.Role;
 import com.example.backend.service.DeliveryDriverService;
+import com.example.backend.service.DriverLocationService;
+import com.example.backend.service.EtaService;
+import com.example.backend.service.KitchenLoadService;
+import com.example.backend.service.OrderQueryService;
 import com.example.backend.service.OrderService;
 import com.example.backend.service.UserService;
 import org.springframework.http.HttpStatus;
@@ -16,6 +20,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,16 +30,29 @@ public class DriverController {
     private final UserService userService;
     private final DeliveryDriverService deliveryDriverService;
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
+    private final DriverLocationService driverLocationService;
+    private final EtaService etaService;
+    private final KitchenLoadService kitchenLoadService;
 
+    private static final int MAX_PINGS_PER_REQUEST = 500;
     private static final Set<String> DRIVER_ALLOWED_STATUSES = Set.of("PREPARING", "OUT_FOR_DELIVERY", "DELIVERED", "CANCELLED");
     private static final Set<String> DRIVER_TERMINAL_STATUSES = Set.of("DELIVERED", "CANCELLED");
 
     public DriverController(UserService userService,
                             DeliveryDriverService deliveryDriverService,
-                            OrderService orderService) {
+                            OrderService orderService,
+                            OrderQueryService orderQueryService,
+                            DriverLocationService driverLocationService,
+                            EtaService etaService,
+                            KitchenLoadService kitchenLoadService) {
         this.userService = userService;
         this.deliveryDriverService = deliveryDriverService;
         this.orderService = orderService;
+        this.orderQueryService = orderQueryService;
+        this.driverLocationService = driverLocationService;
+        this.etaService = etaService;
+        this.kitchenLoadService = kitchenLoadService;
     }
 
     @GetMapping("/profile")
@@ -75,8 +93,33 @@ public class DriverController {
                         .body(Map.of("error", "driver profile not found")));
     }
 
+    /**
+     * Accepts a batch of GPS pings ({@code [{latitude, longitude, recordedAt?, speed?}]}, recordedAt in
+     * epoch milliseconds). Apps should buffer a few pings and post them together.
+     */
+    @PostMapping("/locations")
+    public ResponseEntity<?> reportLocations(@RequestParam Long userId,
+                                             @RequestBody List<DriverLocationService.Ping> pings) {
+        if (pings.size() > MAX_PINGS_PER_REQUEST) {
+            return ResponseEntity.badRequest().body(Map.of("error", "at most " + MAX_PINGS_PER_REQUEST + " pings per request"));
+        }
+        Long driverId = driverLocationService.resolveDriverId(userId);
+        if (driverId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "driver privileges required"));
+        }
+        return ResponseEntity.accepted().body(driverLocationService.ingest(driverId, pings));
+    }
+
+    /**
+     * The driver dashboard; polled, so it is served from the async read pool (see {@link OrderQueryService}).
+     */
     @GetMapping("/orders")
-    public ResponseEntity<?> assignedOrders(@RequestParam Long userId) {
+    public CompletableFuture<ResponseEntity<?>> assignedOrders(@RequestParam Long userId) {
+        return orderQueryService.<ResponseEntity<?>>read(() -> assignedOrdersView(userId))
+                .exceptionally(AsyncReads::failed);
+    }
+
+    private ResponseEntity<?> assignedOrdersView(Long userId) {
         if (!userService.hasRole(userId, Role.ROLE_DRIVER)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "driver privileges required"));
         }
@@ -87,7 +130,7 @@ public class DriverController {
         if (driver == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "driver profile not found"));
         }
-        List<Map<String, Object>> payload = orderService.findByDriverId(driver.getId()).stream()
+        List<Map<String, Object>> payload = orderService.findDetachedByDriverId(driver.getId()).stream()
                 .map(this::toOrderView)
                 .collect(Collectors.toList());
         Map<String, Object> response = new HashMap<>();
@@ -125,12 +168,18 @@ public class DriverController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "order not found"));
         }
         Order order = orderOpt.get();
+        if (order.isArchived()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "order is archived"));
+        }
         if (order.getDriver() == null || !Objects.equals(order.getDriver().getId(), driver.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "order not assigned to this driver"));
         }
 
+        String previousStatus = order.getStatus();
         order.setStatus(nextStatus);
         Order savedOrder = orderService.save(order);
+        etaService.recordTransition(savedOrder, previousStatus);
+        kitchenLoadService.onStatusChange(savedOrder.getId(), nextStatus);
 
         List<Order> driverOrders = orderService.findByDriverId(driver.getId());
         boolean hasActiveAssignments = driverOrders.stream().anyMatch(existing -> !isTerminalStatus(existing.getStatus()));
@@ -149,6 +198,7 @@ public class DriverController {
         map.put("name", driver.getName());
         map.put("contact", driver.getContact());
         map.put("available", driver.getAvailable());
+        driverLocationService.latest(driver.getId()).ifPresent(position -> map.put("location", position));
         if (driver.getUser() != null) {
             map.put("user", Map.of(
                     "id", driver.getUser().getId(),
@@ -165,6 +215,7 @@ public class DriverController {
         map.put("deliveryAddress", order.getDeliveryAddress());
         map.put("totalAmount", order.getTotalAmount());
         map.put("orderDate", order.getOrderDate());
+        etaService.estimate(order).ifPresent(eta -> map.put("eta", eta));
         if (order.getRestaurant() != null) {
             map.put("restaurant", Map.of(
                     "id", order.getRestaurant().getId(),
@@ -0,0 +1,73 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.MenuImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves stored menu image variants. Files are content-addressed and never change, so responses are
+ * marked immutable for a year. Bodies go out through Tomcat's sendfile (FileChannel.transferTo to the
+ * socket) when the connector supports it, otherwise through transferTo into the response stream.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MenuImageService menuImageService;
+
+    public ImageController(MenuImageService menuImageService) {
+        this.menuImageService = menuImageService;
+    }
+
+    @GetMapping("/{fileName:.+}")
+    public void image(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path path = menuImageService.resolve(fileName);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String etag = "\"" + fileName + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long length = Files.size(path);
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += file.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
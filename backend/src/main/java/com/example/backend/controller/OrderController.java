@@ -7,58 +7,172 @@ import com.example.backend.model.Restaurant;
 import com.example.backend.model.User;
 import com.example.backend.model.DeliveryDriver;
 import com.example.backend.service.MenuItemService;
+import com.example.backend.service.MenuPopularityService;
+import com.example.backend.service.OrderExpiryService;
+import com.example.backend.service.OrderQueryService;
 import com.example.backend.service.OrderService;
+import com.example.backend.service.PricingService;
 import com.example.backend.service.RestaurantService;
 import com.example.backend.service.UserService;
 import com.example.backend.service.DeliveryDriverService;
+import com.example.backend.service.DriverLocationService;
+import com.example.backend.service.EtaService;
+import com.example.backend.service.KitchenLoadService;
 import com.example.backend.service.QRCodeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+
     private final OrderService orderService;
+    private final OrderQueryService orderQueryService;
     private final UserService userService;
     private final RestaurantService restaurantService;
     private final MenuItemService menuItemService;
     private final DeliveryDriverService deliveryDriverService;
     private final QRCodeService qrCodeService;
+    private final MenuPopularityService menuPopularityService;
+    private final OrderExpiryService orderExpiryService;
+    private final DriverLocationService driverLocationService;
+    private final EtaService etaService;
+    private final KitchenLoadService kitchenLoadService;
+    private final PricingService pricingService;
 
     private static final Set<String> CANCEL_ALLOWED_STATUSES = Set.of("PENDING", "CONFIRMED");
+    private static final int MAX_HISTORY_PAGE = 100;
 
     public OrderController(OrderService orderService,
+                           OrderQueryService orderQueryService,
                            UserService userService,
                            RestaurantService restaurantService,
                            MenuItemService menuItemService,
                            DeliveryDriverService deliveryDriverService,
-                           QRCodeService qrCodeService) {
+                           QRCodeService qrCodeService,
+                           MenuPopularityService menuPopularityService,
+                           OrderExpiryService orderExpiryService,
+                           DriverLocationService driverLocationService,
+                           EtaService etaService,
+                           KitchenLoadService kitchenLoadService,
+                           PricingService pricingService) {
         this.orderService = orderService;
+        this.orderQueryService = orderQueryService;
         this.userService = userService;
         this.restaurantService = restaurantService;
         this.menuItemService = menuItemService;
         this.deliveryDriverService = deliveryDriverService;
         this.qrCodeService = qrCodeService;
+        this.menuPopularityService = menuPopularityService;
+        this.orderExpiryService = orderExpiryService;
+        this.driverLocationService = driverLocationService;
+        this.etaService = etaService;
+        this.kitchenLoadService = kitchenLoadService;
+        this.pricingService = pricingService;
+    }
+
+    /**
+     * Prices a cart without placing it: {@code {restaurantId, items: [{menuItemId, quantity}], promoCode?}}.
+     */
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@RequestBody Map<String, Object> body) {
+        try {
+            Long restaurantId = requiredLong(body, "restaurantId");
+            PricingService.Cart cart = new PricingService.Cart();
+            for (Map<?, ?> it : lineItems(body)) {
+                MenuItem mi = menuItemService.findById(requiredLong(it, "menuItemId")).orElse(null);
+                if (mi == null) continue;
+                cart.add(mi.getId(), PricingService.toPaise(mi.getPrice()), requiredInt(it, "quantity"));
+            }
+            return ResponseEntity.ok(pricingService.quote(restaurantId, cart, promoCode(body)));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code items} is missing or is not a list of objects
+     */
+    private static List<Map<?, ?>> lineItems(Map<String, Object> body) {
+        if (!(body.get("items") instanceof List<?> items)) {
+            throw new IllegalArgumentException("items is required");
+        }
+        List<Map<?, ?>> lines = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (!(item instanceof Map<?, ?> line)) {
+                throw new IllegalArgumentException("items must be objects with menuItemId and quantity");
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the field is missing or not a whole number
+     */
+    private static Long requiredLong(Map<?, ?> body, String field) {
+        Object value = body.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    private static int requiredInt(Map<?, ?> body, String field) {
+        long value = requiredLong(body, field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " is out of range");
+        }
+        return (int) value;
+    }
+
+    private static String promoCode(Map<String, Object> body) {
+        Object value = body.get("promoCode");
+        return value != null ? value.toString() : null;
     }
 
     @PostMapping
     public ResponseEntity<?> placeOrder(@RequestBody Map<String, Object> body) {
-        Long userId = Long.valueOf(body.get("userId").toString());
-        Long restaurantId = Long.valueOf(body.get("restaurantId").toString());
-        var items = (List<Map<String, Object>>) body.get("items");
+        Long userId;
+        Long restaurantId;
+        List<Map<?, ?>> items;
+        try {
+            userId = requiredLong(body, "userId");
+            restaurantId = requiredLong(body, "restaurantId");
+            items = lineItems(body);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
 
         User user = userService.findById(userId).orElse(null);
         Restaurant restaurant = restaurantService.findById(restaurantId).orElse(null);
         if (user == null || restaurant == null) return ResponseEntity.badRequest().body(Map.of("error", "invalid user or restaurant"));
+        KitchenLoadService.Admission admission = kitchenLoadService.admit(restaurant);
+        if (admission == KitchenLoadService.Admission.REJECTED) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "60")
+                    .body(Map.of("error", "restaurant is not taking more orders right now",
+                            "loadFactor", kitchenLoadService.loadFactor(restaurant)));
+        }
 
         Order order = new Order();
         order.setUser(user);
@@ -68,37 +182,50 @@ public class OrderController {
         order.setStatus("PENDING");
 
         List<OrderItem> orderItems = new ArrayList<>();
-        double total = 0.0;
-        for (var it : items) {
-            Long menuItemId = Long.valueOf(it.get("menuItemId").toString());
-            Integer qty = Integer.valueOf(it.get("quantity").toString());
-            MenuItem mi = menuItemService.findById(menuItemId).orElse(null);
-            if (mi == null) continue;
-            OrderItem oi = new OrderItem();
-            oi.setMenuItem(mi);
-            oi.setQuantity(qty);
-            orderItems.add(oi);
-            total += mi.getPrice() * qty;
+        PricingService.Cart cart = new PricingService.Cart();
+        PricingService.Quote price;
+        try {
+            for (Map<?, ?> it : items) {
+                Long menuItemId = requiredLong(it, "menuItemId");
+                int qty = requiredInt(it, "quantity");
+                MenuItem mi = menuItemService.findById(menuItemId).orElse(null);
+                if (mi == null) continue;
+                cart.add(mi.getId(), PricingService.toPaise(mi.getPrice()), qty);
+                OrderItem oi = new OrderItem();
+                oi.setMenuItem(mi);
+                oi.setQuantity(qty);
+                orderItems.add(oi);
+            }
+            price = pricingService.quote(restaurantId, cart, promoCode(body));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
         }
         order.setItems(orderItems);
-        order.setTotalAmount(total);
+        order.setTotalAmount(price.totalAmount());
+        order.setPromoCode(price.promoCode());
         order.setPaymentStatus("PENDING");
         if (body.containsKey("paymentMethod")) {
             order.setPaymentMethod(body.get("paymentMethod").toString());
         }
 
         Order savedOrder = orderService.save(order);
+        kitchenLoadService.track(savedOrder);
+        for (OrderItem oi : orderItems) {
+            menuPopularityService.record(restaurantId, oi.getMenuItem().getId(), oi.getQuantity());
+        }
+        if (!"COD".equalsIgnoreCase(savedOrder.getPaymentMethod())) {
+            orderExpiryService.schedule(savedOrder.getId(), savedOrder.getOrderDate());
+        }
         
         // Generate QR code for payment with actual order ID
         String qrCode = "";
         try {
-            qrCode = qrCodeService.generatePaymentQRCode(savedOrder.getId(), total);
+            qrCode = qrCodeService.generatePaymentQRCode(savedOrder.getId(), price.totalAmount());
             savedOrder.setPaymentQrCode(qrCode);
             orderService.save(savedOrder);
-            System.out.println("QR Code generated successfully for order: " + savedOrder.getId());
+            log.debug("QR code generated for order {}", savedOrder.getId());
         } catch (Exception e) {
-            System.err.println("Failed to generate QR code for order " + savedOrder.getId());
-            e.printStackTrace();
+            log.warn("Failed to generate QR code for order {}", savedOrder.getId(), e);
             // Don't fail the order, just proceed without QR code
         }
 
@@ -106,7 +233,9 @@ public class OrderController {
             "orderId", savedOrder.getId(),
             "paymentQrCode", savedOrder.getPaymentQrCode() != null ? savedOrder.getPaymentQrCode() : "",
             "paymentStatus", savedOrder.getPaymentStatus() != null ? savedOrder.getPaymentStatus() : "PENDING",
-            "paymentMethod", savedOrder.getPaymentMethod() != null ? savedOrder.getPaymentMethod() : "-"
+            "paymentMethod", savedOrder.getPaymentMethod() != null ? savedOrder.getPaymentMethod() : "-",
+            "queued", admission == KitchenLoadService.Admission.QUEUED,
+            "price", price
         ));
     }
 
@@ -115,6 +244,77 @@ public class OrderController {
         return orderService.findByUserId(userId);
     }
 
+    /**
+     * Newest-first order history as slim summaries. Pass the returned {@code nextCursor} as {@code before}
+     * to get the next page; the full order is at {@code GET /api/orders/{orderId}}.
+     */
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<?> history(@PathVariable Long userId,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     @RequestParam(required = false) String before) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_HISTORY_PAGE));
+        }
+        try {
+            OrderService.HistoryPage page = orderService.findHistory(userId, limit, before);
+            Map<String, Object> response = new HashMap<>();
+            response.put("orders", page.orders());
+            response.put("nextCursor", page.nextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Served from the async read pool (see {@link OrderQueryService}), as is {@code /tracking}.
+     */
+    @GetMapping("/{orderId}")
+    public CompletableFuture<ResponseEntity<?>> detail(@PathVariable Long orderId, @RequestParam Long userId) {
+        return orderQueryService.findById(orderId)
+                .<ResponseEntity<?>>thenApply(orderOpt -> {
+                    if (orderOpt.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "order not found"));
+                    }
+                    Order order = orderOpt.get();
+                    if (!Objects.equals(order.getUser() != null ? order.getUser().getId() : null, userId)) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "order does not belong to user"));
+                    }
+                    return ResponseEntity.ok(order);
+                })
+                .exceptionally(AsyncReads::failed);
+    }
+
+    @GetMapping("/{orderId}/tracking")
+    public CompletableFuture<ResponseEntity<?>> tracking(@PathVariable Long orderId, @RequestParam Long userId) {
+        return orderQueryService.findById(orderId)
+                .<ResponseEntity<?>>thenApply(orderOpt -> trackingView(orderOpt, userId))
+                .exceptionally(AsyncReads::failed);
+    }
+
+    private ResponseEntity<?> trackingView(Optional<Order> orderOpt, Long userId) {
+        if (orderOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "order not found"));
+        }
+        Order order = orderOpt.get();
+        if (!Objects.equals(order.getUser() != null ? order.getUser().getId() : null, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "order does not belong to user"));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("orderId", order.getId());
+        response.put("status", order.getStatus());
+        etaService.estimate(order).ifPresent(eta -> response.put("eta", eta));
+        if (order.getDriver() != null) {
+            response.put("driver", Map.of(
+                    "id", order.getDriver().getId(),
+                    "name", order.getDriver().getName()
+            ));
+            driverLocationService.latest(order.getDriver().getId())
+                    .ifPresent(position -> response.put("driverLocation", position));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{orderId}/cancel")
     public ResponseEntity<?> cancelOrder(@PathVariable Long orderId, @RequestParam Long userId) {
         var userOpt = userService.findById(userId);
@@ -141,6 +341,8 @@ public class OrderController {
             order.setDriver(null);
         }
         orderService.save(order);
+        orderExpiryService.cancel(order.getId());
+        kitchenLoadService.release(order.getId());
         return ResponseEntity.ok(Map.of("orderId", order.getId(), "status", order.getStatus()));
     }
 }
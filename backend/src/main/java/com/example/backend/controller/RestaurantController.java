@@ -2,12 +2,18 @@ package com.example.backend.controller;
 
 import com.example.backend.model.MenuItem;
 import com.example.backend.model.Restaurant;
+import com.example.backend.service.KitchenLoadService;
 import com.example.backend.service.MenuItemService;
+import com.example.backend.service.MenuPopularityService;
 import com.example.backend.service.RestaurantService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -15,18 +21,56 @@ public class RestaurantController {
 
     private final RestaurantService restaurantService;
     private final MenuItemService menuItemService;
+    private final MenuPopularityService menuPopularityService;
+    private final KitchenLoadService kitchenLoadService;
 
-    public RestaurantController(RestaurantService restaurantService, MenuItemService menuItemService) {
+    public RestaurantController(RestaurantService restaurantService,
+                                MenuItemService menuItemService,
+                                MenuPopularityService menuPopularityService,
+                                KitchenLoadService kitchenLoadService) {
         this.restaurantService = restaurantService;
         this.menuItemService = menuItemService;
+        this.menuPopularityService = menuPopularityService;
+        this.kitchenLoadService = kitchenLoadService;
     }
 
+    /**
+     * Lists restaurants with their live kitchen load; saturated kitchens are moved to the end. The cached
+     * restaurants are shared between requests, so the load goes into a view built for this request.
+     */
     @GetMapping
-    public List<Restaurant> list() { return restaurantService.findAll(); }
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> restaurants = new ArrayList<>();
+        List<Map<String, Object>> saturated = new ArrayList<>();
+        for (Restaurant restaurant : restaurantService.findAll()) {
+            double loadFactor = kitchenLoadService.loadFactor(restaurant);
+            (loadFactor >= 1.0 ? saturated : restaurants).add(toRestaurantView(restaurant, loadFactor));
+        }
+        restaurants.addAll(saturated);
+        return restaurants;
+    }
 
     @GetMapping("/{id}/menu")
-    public ResponseEntity<?> menu(@PathVariable Long id) {
+    public ResponseEntity<?> menu(@PathVariable Long id, @RequestParam(required = false) String sort) {
         List<MenuItem> items = menuItemService.findByRestaurantId(id);
+        if ("popular".equalsIgnoreCase(sort)) {
+            Map<Long, Double> scores = menuPopularityService.scores(id);
+            items = new ArrayList<>(items);
+            items.sort(Comparator.comparingDouble((MenuItem item) -> scores.getOrDefault(item.getId(), 0.0)).reversed());
+        }
         return ResponseEntity.ok(items);
     }
+
+    private Map<String, Object> toRestaurantView(Restaurant restaurant, double loadFactor) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", restaurant.getId());
+        map.put("name", restaurant.getName());
+        map.put("cuisine", restaurant.getCuisine());
+        map.put("address", restaurant.getAddress());
+        map.put("contact", restaurant.getContact());
+        map.put("rating", restaurant.getRating());
+        map.put("kitchenCapacity", restaurant.getKitchenCapacity());
+        map.put("loadFactor", loadFactor);
+        return map;
+    }
 }
@@ -1,6 +1,8 @@
 package com.example.backend.controller;
 
 import com.example.backend.service.QRCodeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,6 +12,8 @@ import java.util.Map;
 @RequestMapping("/api/test")
 public class TestController {
 
+    private static final Logger log = LoggerFactory.getLogger(TestController.class);
+
     private final QRCodeService qrCodeService;
 
     public TestController(QRCodeService qrCodeService) {
@@ -29,7 +33,7 @@ public class TestController {
                 "message", "QR code generated successfully"
             ));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Test QR generation failed for order {}", orderId, e);
             return ResponseEntity.status(500).body(Map.of(
                 "success", false,
                 "error", e.getMessage(),
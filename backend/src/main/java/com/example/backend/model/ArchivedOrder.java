@@ -0,0 +1,93 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A delivered or cancelled order moved out of {@code orders} by OrderArchiveService. Only ids are
+ * kept for the user, restaurant and driver, and the payment QR image is dropped. The row keeps the
+ * id it had in {@code orders}, so it stays on the same shard.
+ */
+@Entity
+@Table(name = "orders_archive",
+        indexes = {
+                @Index(name = "idx_orders_archive_user_date_id", columnList = "userId, orderDate, id"),
+                @Index(name = "idx_orders_archive_driver", columnList = "driverId")
+        })
+public class ArchivedOrder {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    private Long userId;
+    private Long restaurantId;
+    private Long driverId;
+    private LocalDateTime orderDate;
+    private String deliveryAddress;
+    private Double totalAmount;
+
+    @Column(length = 40)
+    private String promoCode;
+
+    @Column(length = 20)
+    private String status;
+
+    @Column(length = 20)
+    private String paymentStatus;
+
+    @Column(length = 20)
+    private String paymentMethod;
+
+    private int itemCount;
+    private LocalDateTime archivedAt;
+
+    public ArchivedOrder() {
+    }
+
+    public static ArchivedOrder of(Order order, LocalDateTime archivedAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.id = order.getId();
+        archived.userId = order.getUser() != null ? order.getUser().getId() : null;
+        archived.restaurantId = order.getRestaurant() != null ? order.getRestaurant().getId() : null;
+        archived.driverId = order.getDriver() != null ? order.getDriver().getId() : null;
+        archived.orderDate = order.getOrderDate();
+        archived.deliveryAddress = order.getDeliveryAddress();
+        archived.totalAmount = order.getTotalAmount();
+        archived.promoCode = order.getPromoCode();
+        archived.status = order.getStatus();
+        archived.paymentStatus = order.getPaymentStatus();
+        archived.paymentMethod = order.getPaymentMethod();
+        archived.itemCount = order.getItems() != null ? order.getItems().size() : 0;
+        archived.archivedAt = archivedAt;
+        return archived;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public String getPromoCode() { return promoCode; }
+    public void setPromoCode(String promoCode) { this.promoCode = promoCode; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    public int getItemCount() { return itemCount; }
+    public void setItemCount(int itemCount) { this.itemCount = itemCount; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
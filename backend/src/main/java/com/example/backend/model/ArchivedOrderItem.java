@@ -0,0 +1,42 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * An item of an {@link ArchivedOrder}, keyed by the order id instead of a join table.
+ */
+@Entity
+@Table(name = "order_items_archive",
+        indexes = {
+                @Index(name = "idx_order_items_archive_order", columnList = "orderId"),
+                @Index(name = "idx_order_items_archive_menu_item", columnList = "menuItemId")
+        })
+public class ArchivedOrderItem {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    private Long orderId;
+    private Long menuItemId;
+    private Integer quantity;
+
+    public ArchivedOrderItem() {
+    }
+
+    public ArchivedOrderItem(Long id, Long orderId, Long menuItemId, Integer quantity) {
+        this.id = id;
+        this.orderId = orderId;
+        this.menuItemId = menuItemId;
+        this.quantity = quantity;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getMenuItemId() { return menuItemId; }
+    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -1,13 +1,19 @@
 package com.example.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "delivery_drivers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "delivery-drivers")
 public class DeliveryDriver {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     private String name;
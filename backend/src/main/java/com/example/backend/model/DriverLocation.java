@@ -0,0 +1,49 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of a driver's location trail. Only a thinned-out subset of the pings is stored
+ * (see DriverLocationService); the live position is kept in memory.
+ */
+@Entity
+@Table(name = "driver_location_history",
+        indexes = @Index(name = "idx_driver_location_driver_time", columnList = "driverId, recordedAt"))
+public class DriverLocation {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    private Long driverId;
+    private double latitude;
+    private double longitude;
+    private Float speed;
+    private LocalDateTime recordedAt;
+
+    public DriverLocation() {
+    }
+
+    public DriverLocation(Long driverId, double latitude, double longitude, Float speed, LocalDateTime recordedAt) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speed = speed;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+    public Float getSpeed() { return speed; }
+    public void setSpeed(Float speed) { this.speed = speed; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -1,19 +1,35 @@
 package com.example.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "menu_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "menu-items")
 public class MenuItem {
+    /** Widths (px) an uploaded image is resized to; see MenuImageService. */
+    public static final int[] IMAGE_WIDTHS = {320, 640, 1280};
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     private String name;
     @Column(length = 1000)
     private String description;
     private Double price;
     private String image;
+    @Column(length = 64)
+    private String imageHash; // SHA-256 of the uploaded original, null for external image URLs
 
     @ManyToOne
     @JoinColumn(name = "restaurant_id")
@@ -30,7 +46,33 @@ public class MenuItem {
     public Double getPrice() { return price; }
     public void setPrice(Double price) { this.price = price; }
     public String getImage() { return image; }
-    public void setImage(String image) { this.image = image; }
+    public void setImage(String image) {
+        if (!Objects.equals(this.image, image)) {
+            this.imageHash = null;
+        }
+        this.image = image;
+    }
+    @JsonIgnore
+    public String getImageHash() { return imageHash; }
+    public void setUploadedImage(String imageHash) {
+        this.imageHash = imageHash;
+        this.image = imageUrl(imageHash, IMAGE_WIDTHS[1]);
+    }
+    /** Resized variants of an uploaded image by width, or null if the image was not uploaded. */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getImageVariants() {
+        if (imageHash == null) {
+            return null;
+        }
+        Map<String, String> variants = new LinkedHashMap<>();
+        for (int width : IMAGE_WIDTHS) {
+            variants.put(String.valueOf(width), imageUrl(imageHash, width));
+        }
+        return variants;
+    }
+    public static String imageUrl(String imageHash, int width) {
+        return "/api/images/" + imageHash + "-" + width + ".jpg";
+    }
     public Restaurant getRestaurant() { return restaurant; }
     public void setRestaurant(Restaurant restaurant) { this.restaurant = restaurant; }
 }
@@ -6,25 +6,37 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * The user, restaurant and driver are plain references without foreign keys: on a sharded setup
+ * the order lives on another database than the catalog (see OrderShards), and OrderService
+ * resolves them on shard 0.
+ */
 @Entity(name = "orders")
+@Table(indexes = @Index(name = "idx_orders_user_date_id", columnList = "user_id, orderDate, id"))
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Restaurant restaurant;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private DeliveryDriver driver;
 
     private LocalDateTime orderDate;
     private String deliveryAddress;
     private Double totalAmount;
+
+    @Column(length = 40)
+    private String promoCode;
     private String status;
 
 
@@ -40,6 +52,9 @@ public class Order {
     @OneToMany(cascade = CascadeType.ALL)
     private List<OrderItem> items;
 
+    @Transient
+    private boolean archived; // rebuilt from orders_archive, read-only
+
     // getters/setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -55,6 +70,8 @@ public class Order {
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public String getPromoCode() { return promoCode; }
+    public void setPromoCode(String promoCode) { this.promoCode = promoCode; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public String getPaymentStatus() { return paymentStatus; }
@@ -65,4 +82,6 @@ public class Order {
     public void setPaymentQrCode(String paymentQrCode) { this.paymentQrCode = paymentQrCode; }
     public List<OrderItem> getItems() { return items; }
     public void setItems(List<OrderItem> items) { this.items = items; }
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
 }
@@ -0,0 +1,76 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row describing one change to an order. Written in the same transaction as the change
+ * and removed once the relay has handed it to every sink. Ids are time-ordered, so id order is
+ * the order in which changes were made.
+ */
+@Entity
+@Table(name = "order_outbox")
+public class OrderEvent {
+
+    public static final String PLACED = "ORDER_PLACED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String PAYMENT_CHANGED = "PAYMENT_CHANGED";
+    public static final String DRIVER_CHANGED = "DRIVER_CHANGED";
+    public static final String EXPIRED = "PAYMENT_EXPIRED";
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    private Long orderId;
+    private Long userId;
+
+    @Column(length = 30)
+    private String type;
+
+    private String status;
+
+    @Column(length = 20)
+    private String paymentStatus;
+
+    private Long driverId;
+    private LocalDateTime createdAt;
+
+    public OrderEvent() {
+    }
+
+    public OrderEvent(String type, Long orderId, Long userId, String status, String paymentStatus, Long driverId) {
+        this.type = type;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.driverId = driverId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public static OrderEvent of(String type, Order order) {
+        return new OrderEvent(type, order.getId(),
+                order.getUser() != null ? order.getUser().getId() : null,
+                order.getStatus(), order.getPaymentStatus(),
+                order.getDriver() != null ? order.getDriver().getId() : null);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
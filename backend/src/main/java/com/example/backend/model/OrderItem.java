@@ -5,10 +5,12 @@ import jakarta.persistence.*;
 @Entity
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
-    @ManyToOne
+    // No foreign key: menu items stay on shard 0 (see Order)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private MenuItem menuItem;
 
     private Integer quantity;
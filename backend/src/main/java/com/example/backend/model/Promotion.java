@@ -0,0 +1,74 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A promotion evaluated by PricingService. Amounts are in paise. Promotions without a code apply
+ * automatically; coded ones only when the customer enters the code. restaurantId null means every
+ * restaurant.
+ * <ul>
+ *   <li>PERCENT: percentBps (basis points) off the order, capped at maxDiscountPaise</li>
+ *   <li>FLAT: amountPaise off the order</li>
+ *   <li>BOGO: every second unit of menuItemId is free</li>
+ * </ul>
+ * PERCENT and FLAT need an item subtotal of at least minSubtotalPaise. Only the best order-level
+ * promotion is applied; BOGO discounts stack with it.
+ */
+@Entity
+@Table(name = "promotions")
+public class Promotion {
+
+    public static final String PERCENT = "PERCENT";
+    public static final String FLAT = "FLAT";
+    public static final String BOGO = "BOGO";
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(length = 40, unique = true)
+    private String code;
+
+    @Column(length = 10, nullable = false)
+    private String type;
+
+    private Long restaurantId;
+    private Long menuItemId;
+    private Integer percentBps;
+    private Long amountPaise;
+    private Long minSubtotalPaise;
+    private Long maxDiscountPaise;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+    private boolean active = true;
+
+    public Promotion() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public Long getRestaurantId() { return restaurantId; }
+    public void setRestaurantId(Long restaurantId) { this.restaurantId = restaurantId; }
+    public Long getMenuItemId() { return menuItemId; }
+    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+    public Integer getPercentBps() { return percentBps; }
+    public void setPercentBps(Integer percentBps) { this.percentBps = percentBps; }
+    public Long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(Long amountPaise) { this.amountPaise = amountPaise; }
+    public Long getMinSubtotalPaise() { return minSubtotalPaise; }
+    public void setMinSubtotalPaise(Long minSubtotalPaise) { this.minSubtotalPaise = minSubtotalPaise; }
+    public Long getMaxDiscountPaise() { return maxDiscountPaise; }
+    public void setMaxDiscountPaise(Long maxDiscountPaise) { this.maxDiscountPaise = maxDiscountPaise; }
+    public LocalDateTime getValidFrom() { return validFrom; }
+    public void setValidFrom(LocalDateTime validFrom) { this.validFrom = validFrom; }
+    public LocalDateTime getValidUntil() { return validUntil; }
+    public void setValidUntil(LocalDateTime validUntil) { this.validUntil = validUntil; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+}
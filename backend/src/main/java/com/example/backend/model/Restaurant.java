@@ -1,14 +1,20 @@
 package com.example.backend.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "restaurants")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurants")
 public class Restaurant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     private String name;
     private String cuisine;
@@ -16,7 +22,11 @@ public class Restaurant {
     private String contact;
     private Double rating;
 
+    // Orders the kitchen handles at once before new ones queue; null means app.kitchen.default-capacity
+    private Integer kitchenCapacity;
+
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurant-menu-items")
     @JsonIgnore
     private List<MenuItem> menuItems;
 
@@ -33,6 +43,8 @@ public class Restaurant {
     public void setContact(String contact) { this.contact = contact; }
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
+    public Integer getKitchenCapacity() { return kitchenCapacity; }
+    public void setKitchenCapacity(Integer kitchenCapacity) { this.kitchenCapacity = kitchenCapacity; }
     public List<MenuItem> getMenuItems() { return menuItems; }
     public void setMenuItems(List<MenuItem> menuItems) { this.menuItems = menuItems; }
 }
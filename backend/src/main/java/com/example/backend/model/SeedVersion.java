@@ -0,0 +1,35 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a versioned seed step (see DataInitializer) has been applied to this database.
+ */
+@Entity
+@Table(name = "seed_versions")
+public class SeedVersion {
+
+    @Id
+    private Integer version;
+
+    private String description;
+    private LocalDateTime appliedAt;
+
+    public SeedVersion() {
+    }
+
+    public SeedVersion(Integer version, String description, LocalDateTime appliedAt) {
+        this.version = version;
+        this.description = description;
+        this.appliedAt = appliedAt;
+    }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+}
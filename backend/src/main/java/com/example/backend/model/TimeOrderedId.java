@@ -0,0 +1,18 @@
+package com.example.backend.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id that is assigned by {@link TimeOrderedIdGenerator} in the application
+ * instead of by a database IDENTITY column.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,119 @@
+package com.example.backend.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style id generator used for every entity. Ids are assigned in the application,
+ * so an insert needs no database round trip for its key, inserts can be batched, and the
+ * order shard is known before the row is written.
+ * <p>
+ * Layout (53 bits, so ids stay exact as JavaScript numbers in the frontend):
+ * 41 bits of milliseconds since 2025-01-01, {@link #NODE_BITS} bits of node id and
+ * {@link #SEQUENCE_BITS} bits of sequence within the millisecond. Every node running
+ * against the same database needs its own node id (app.ids.node-id).
+ * <p>
+ * The last issued id is kept in a single AtomicLong and advanced with compare-and-set, so
+ * concurrent callers never block each other. When a millisecond's sequence is used up, or
+ * the clock steps backwards, ids continue from the last timestamp instead of repeating;
+ * if that puts the generator more than the allowed clock skew ahead of the wall clock,
+ * callers wait for the clock to catch up. Ids that are already set are kept.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private static final AtomicLong LAST_ID = new AtomicLong();
+    private static volatile long nodeBits;
+    private static volatile long maxSkewMillis = 1000;
+    private static volatile LongSupplier clock = System::currentTimeMillis;
+
+    /**
+     * Sets the node id and tolerated clock skew for this process. Called once at startup,
+     * before any id is generated.
+     */
+    public static void configure(int nodeId, long maxClockSkewMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        nodeBits = (long) nodeId << SEQUENCE_BITS;
+        maxSkewMillis = Math.max(0, maxClockSkewMillis);
+    }
+
+    /**
+     * Replaces the wall clock, for tests. Pass {@code System::currentTimeMillis} to restore it.
+     */
+    static void useClock(LongSupplier millisClock) {
+        clock = millisClock;
+    }
+
+    /**
+     * Returns the next id. Never repeats or goes backwards, even if the clock does.
+     */
+    public static long nextId() {
+        while (true) {
+            long last = LAST_ID.get();
+            long lastMillis = last >>> TIMESTAMP_SHIFT;
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+
+            long millis;
+            long sequence;
+            if (now > lastMillis) {
+                millis = now;
+                sequence = 0;
+            } else if ((last & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                millis = lastMillis;
+                sequence = (last & MAX_SEQUENCE) + 1;
+            } else {
+                // Sequence exhausted (or clock behind): borrow the next millisecond
+                millis = lastMillis + 1;
+                sequence = 0;
+            }
+
+            long ahead = millis - now;
+            if (ahead > maxSkewMillis) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - maxSkewMillis));
+                continue;
+            }
+            long next = (millis << TIMESTAMP_SHIFT) | nodeBits | sequence;
+            if (LAST_ID.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * The smallest id that can be issued at the given time; every id issued earlier is below it.
+     */
+    public static long firstIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentValue != null ? currentValue : nextId();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ArchivedOrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    List<ArchivedOrderItem> findByOrderIdOrderByIdAsc(Long orderId);
+
+    List<ArchivedOrderItem> findByOrderIdInOrderByIdAsc(Collection<Long> orderIds);
+
+    @Query("select distinct a.menuItemId from ArchivedOrderItem a where a.menuItemId in :menuItemIds")
+    List<Long> findOrderedMenuItemIds(@Param("menuItemIds") Collection<Long> menuItemIds);
+}
@@ -0,0 +1,40 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    boolean existsByRestaurantId(Long restaurantId);
+
+    List<ArchivedOrder> findByUserId(Long userId, Sort sort);
+
+    List<ArchivedOrder> findByDriverId(Long driverId, Sort sort);
+
+    @Query("select " + SUMMARY_COLUMNS + " from ArchivedOrder a left join Restaurant r on r.id = a.restaurantId"
+            + " where a.userId = :userId order by a.orderDate desc, a.id desc")
+    List<OrderRepository.OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable page);
+
+    @Query("select " + SUMMARY_COLUMNS + " from ArchivedOrder a left join Restaurant r on r.id = a.restaurantId"
+            + " where a.userId = :userId"
+            + " and (a.orderDate < :orderDate or (a.orderDate = :orderDate and a.id < :id))"
+            + " order by a.orderDate desc, a.id desc")
+    List<OrderRepository.OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                                   @Param("orderDate") LocalDateTime orderDate,
+                                                                   @Param("id") Long id,
+                                                                   Pageable page);
+
+    /**
+     * Same columns as {@link OrderRepository#SUMMARY_COLUMNS}, so archived and live rows merge into one history.
+     */
+    String SUMMARY_COLUMNS = "a.id as id, a.orderDate as orderDate, a.status as status,"
+            + " a.paymentStatus as paymentStatus, a.paymentMethod as paymentMethod, a.totalAmount as totalAmount,"
+            + " a.restaurantId as restaurantId, r.name as restaurantName, a.itemCount as itemCount";
+}
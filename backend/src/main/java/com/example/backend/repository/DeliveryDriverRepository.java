@@ -1,12 +1,18 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.DeliveryDriver;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface DeliveryDriverRepository extends JpaRepository<DeliveryDriver, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<DeliveryDriver> findByUserId(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<DeliveryDriver> findAllByOrderByNameAsc();
 }
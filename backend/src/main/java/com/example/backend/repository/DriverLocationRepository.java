@@ -0,0 +1,11 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.DriverLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface DriverLocationRepository extends JpaRepository<DriverLocation, Long> {
+    List<DriverLocation> findByDriverIdAndRecordedAtAfterOrderByRecordedAtAsc(Long driverId, LocalDateTime since);
+}
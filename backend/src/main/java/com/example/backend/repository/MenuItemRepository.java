@@ -1,10 +1,25 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.MenuItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<MenuItem> findByRestaurantId(Long restaurantId);
+
+    @Query("select m.id from MenuItem m where m.restaurant.id = :restaurantId")
+    List<Long> findIdsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from MenuItem m where m.restaurant.id = :restaurantId")
+    List<MenuItem> lockByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
@@ -0,0 +1,11 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    List<OrderEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
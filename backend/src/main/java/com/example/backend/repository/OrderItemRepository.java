@@ -2,6 +2,13 @@ package com.example.backend.repository;
 
 import com.example.backend.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    @Query("select distinct oi.menuItem.id from OrderItem oi where oi.menuItem.id in :menuItemIds")
+    List<Long> findOrderedMenuItemIds(@Param("menuItemIds") Collection<Long> menuItemIds);
 }
@@ -1,11 +1,137 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
-    List<Order> findByDriverId(Long driverId);
+    // Spelled out rather than derived: derived queries join the users/restaurants/drivers table,
+    // which has no rows on shards other than 0; o.user.id is read from the order row itself
+    @Query("select o from orders o where o.user.id = :userId")
+    List<Order> findByUserId(@Param("userId") Long userId, Sort sort);
+
+    @Query("select o from orders o where o.driver.id = :driverId")
+    List<Order> findByDriverId(@Param("driverId") Long driverId, Sort sort);
+
+    @Query("select count(o) > 0 from orders o where o.restaurant.id = :restaurantId")
+    boolean existsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("select " + SUMMARY_COLUMNS + " from orders o left join o.restaurant r where o.user.id = :userId"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable page);
+
+    /**
+     * The page after {@code (orderDate, id)} in newest-first order; walks the (user_id, order_date, id) index.
+     */
+    @Query("select " + SUMMARY_COLUMNS + " from orders o left join o.restaurant r where o.user.id = :userId"
+            + " and (o.orderDate < :orderDate or (o.orderDate = :orderDate and o.id < :id))"
+            + " order by o.orderDate desc, o.id desc")
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("orderDate") LocalDateTime orderDate,
+                                                   @Param("id") Long id,
+                                                   Pageable page);
+
+    @Query("select o.id as id, o.totalAmount as totalAmount, o.paymentStatus as paymentStatus from orders o"
+            + " where o.paymentStatus in ('PENDING', 'FAILED')")
+    List<UnsettledPayment> findUnsettledPayments();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id as id, o.user.id as userId, o.status as status, o.driver.id as driverId from orders o where o.id in :ids and o.paymentStatus in :from")
+    List<OrderRef> lockPayments(@Param("ids") Collection<Long> ids, @Param("from") Collection<String> from);
+
+    @Modifying
+    @Query("update orders o set o.paymentStatus = :status where o.id in :ids and o.paymentStatus in :from")
+    int updatePaymentStatus(@Param("status") String status, @Param("ids") Collection<Long> ids,
+                            @Param("from") Collection<String> from);
+
+    @Query("select o.id as id, o.orderDate as orderDate from orders o where " + EXPIRABLE)
+    List<ExpirableOrder> findExpirableOrders();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id as id, o.user.id as userId, o.status as status, o.driver.id as driverId from orders o where o.id in :ids and " + EXPIRABLE)
+    List<OrderRef> lockExpirableOrders(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update orders o set o.paymentStatus = 'EXPIRED', o.status = 'CANCELLED', o.paymentQrCode = null"
+            + " where o.id in :ids and " + EXPIRABLE)
+    int expirePendingPayments(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.id as id, o.restaurant.id as restaurantId, o.orderDate as orderDate, o.status as status,"
+            + " o.paymentMethod as paymentMethod, o.paymentStatus as paymentStatus from orders o"
+            + " where o.status in ('PENDING', 'CONFIRMED', 'PREPARING')")
+    List<KitchenOrder> findKitchenOrders();
+
+    /**
+     * Delivered or cancelled orders created before {@code maxId} (ids grow with time), oldest first.
+     * The order date must be before {@code cutoff} too, since an order's date can be set apart from its id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o.id from orders o where o.id < :maxId and o.orderDate < :cutoff"
+            + " and o.status in ('DELIVERED', 'CANCELLED') order by o.id")
+    List<Long> lockArchivableIds(@Param("maxId") Long maxId, @Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    @Query("select distinct o from orders o left join fetch o.items where o.id in :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Unpaid orders that nobody has acted on yet: not confirmed, no driver, not cash on delivery.
+     */
+    String EXPIRABLE = "o.paymentStatus = 'PENDING' and o.status = 'PENDING' and o.driver is null"
+            + " and (o.paymentMethod is null or o.paymentMethod <> 'COD')";
+
+    String SUMMARY_COLUMNS = "o.id as id, o.orderDate as orderDate, o.status as status,"
+            + " o.paymentStatus as paymentStatus, o.paymentMethod as paymentMethod, o.totalAmount as totalAmount,"
+            + " o.restaurant.id as restaurantId, r.name as restaurantName, size(o.items) as itemCount";
+
+    /**
+     * What an order history row shows; the full order is fetched separately when it is opened.
+     */
+    interface OrderSummary {
+        Long getId();
+        LocalDateTime getOrderDate();
+        String getStatus();
+        String getPaymentStatus();
+        String getPaymentMethod();
+        Double getTotalAmount();
+        Long getRestaurantId();
+        String getRestaurantName();
+        Integer getItemCount();
+    }
+
+    interface OrderRef {
+        Long getId();
+        Long getUserId();
+        String getStatus();
+        Long getDriverId();
+    }
+
+    interface UnsettledPayment {
+        Long getId();
+        Double getTotalAmount();
+        String getPaymentStatus();
+    }
+
+    interface ExpirableOrder {
+        Long getId();
+        LocalDateTime getOrderDate();
+    }
+
+    interface KitchenOrder {
+        Long getId();
+        Long getRestaurantId();
+        LocalDateTime getOrderDate();
+        String getStatus();
+        String getPaymentMethod();
+        String getPaymentStatus();
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Promotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PromotionRepository extends JpaRepository<Promotion, Long> {
+    List<Promotion> findByActiveTrue();
+
+    List<Promotion> findAllByOrderByIdDesc();
+}
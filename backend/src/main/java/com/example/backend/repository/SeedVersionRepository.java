@@ -0,0 +1,7 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.SeedVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeedVersionRepository extends JpaRepository<SeedVersion, Integer> {
+}
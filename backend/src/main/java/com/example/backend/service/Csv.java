@@ -0,0 +1,45 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal CSV support shared by the file importers: comma separated, double quotes around fields
+ * that contain commas, doubled quotes inside them.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
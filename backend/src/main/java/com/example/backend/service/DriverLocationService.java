@@ -0,0 +1,235 @@
+package com.example.backend.service;
+
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.DriverLocation;
+import com.example.backend.model.Role;
+import com.example.backend.repository.DriverLocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests driver GPS pings. The latest position per driver lives in {@link DriverPositionStore}, so a
+ * ping costs no database work. A ping that is at least the trail interval or distance away from the
+ * driver's previous trail point is also queued, and the queue is written to driver_location_history
+ * in JDBC batches every flush interval. The trail is best effort: points are dropped when the queue
+ * is full or a flush fails.
+ */
+@Service
+public class DriverLocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverLocationService.class);
+    private static final long MAX_FUTURE_SKEW_MILLIS = 60_000;
+
+    private final DriverLocationRepository driverLocationRepository;
+    private final UserService userService;
+    private final DeliveryDriverService deliveryDriverService;
+    private final DriverPositionStore store;
+    private final ConcurrentLinkedQueue<DriverLocation> pendingTrail = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTrailSize = new AtomicInteger();
+    private final Map<Long, Long> driverIdsByUser = new ConcurrentHashMap<>();
+    private final TransactionTemplate transaction;
+    private final Counter acceptedCounter;
+    private final Counter staleCounter;
+    private final Counter rejectedCounter;
+    private final Counter persistedCounter;
+    private final Counter droppedCounter;
+
+    @Value("${app.driver-locations.max-pending-trail:200000}")
+    private int maxPendingTrail;
+
+    @Value("${app.driver-locations.flush-batch-size:5000}")
+    private int flushBatchSize;
+
+    public record Ping(Double latitude, Double longitude, Long recordedAt, Float speed) {
+    }
+
+    public record Position(long driverId, double latitude, double longitude, Float speed, long recordedAt) {
+    }
+
+    public record IngestResult(int accepted, int stale, int rejected) {
+    }
+
+    public DriverLocationService(DriverLocationRepository driverLocationRepository,
+                                 UserService userService,
+                                 DeliveryDriverService deliveryDriverService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.driver-locations.capacity:65536}") int capacity,
+                                 @Value("${app.driver-locations.trail-min-interval:30s}") Duration trailMinInterval,
+                                 @Value("${app.driver-locations.trail-min-distance-meters:100}") double trailMinDistanceMeters) {
+        this.driverLocationRepository = driverLocationRepository;
+        this.userService = userService;
+        this.deliveryDriverService = deliveryDriverService;
+        this.store = new DriverPositionStore(capacity, trailMinInterval.toMillis(), trailMinDistanceMeters);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.acceptedCounter = pingCounter(meterRegistry, "accepted");
+        this.staleCounter = pingCounter(meterRegistry, "stale");
+        this.rejectedCounter = pingCounter(meterRegistry, "rejected");
+        this.persistedCounter = Counter.builder("driver.locations.trail")
+                .description("Driver trail points written to or dropped before the history table")
+                .tag("outcome", "persisted")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("driver.locations.trail")
+                .description("Driver trail points written to or dropped before the history table")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        Gauge.builder("driver.locations.tracked", store, DriverPositionStore::size)
+                .description("Drivers with a slot in the latest-position store")
+                .register(meterRegistry);
+        Gauge.builder("driver.locations.trail.pending", pendingTrailSize, AtomicInteger::get)
+                .description("Trail points waiting for the next flush")
+                .register(meterRegistry);
+    }
+
+    private static Counter pingCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("driver.locations.pings")
+                .description("Driver location pings by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Maps a driver user to their driver profile id, remembering the answer so steady ping traffic does
+     * not hit the users table. Returns null if the user is not a driver or has no profile yet.
+     */
+    public Long resolveDriverId(Long userId) {
+        Long cached = driverIdsByUser.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        if (!userService.hasRole(userId, Role.ROLE_DRIVER)) {
+            return null;
+        }
+        Optional<DeliveryDriver> driver = deliveryDriverService.findByUserId(userId);
+        driver.ifPresent(d -> driverIdsByUser.put(userId, d.getId()));
+        return driver.map(DeliveryDriver::getId).orElse(null);
+    }
+
+    /**
+     * Records a batch of pings for one driver. Pings without a timestamp are taken as "now", and so are
+     * pings stamped up to a minute ahead of the server clock, so a device whose clock runs fast cannot
+     * make later correct pings look stale. Pings older than the stored position are counted as stale and ignored.
+     */
+    public IngestResult ingest(long driverId, List<Ping> pings) {
+        int slot = store.slot(driverId);
+        if (slot < 0) {
+            rejectedCounter.increment(pings.size());
+            log.warn("Driver position store is full; raise app.driver-locations.capacity");
+            return new IngestResult(0, 0, pings.size());
+        }
+        long now = System.currentTimeMillis();
+        int accepted = 0;
+        int stale = 0;
+        int rejected = 0;
+        for (Ping ping : pings) {
+            if (ping == null || !valid(ping, now)) {
+                rejected++;
+                continue;
+            }
+            long recordedAt = ping.recordedAt() != null ? Math.min(ping.recordedAt(), now) : now;
+            float speed = ping.speed() != null && ping.speed() >= 0 ? ping.speed() : Float.NaN;
+            int outcome = store.update(slot, ping.latitude(), ping.longitude(), speed, recordedAt);
+            if (outcome == DriverPositionStore.STALE) {
+                stale++;
+                continue;
+            }
+            accepted++;
+            if (outcome == DriverPositionStore.TRAIL_POINT) {
+                queueTrailPoint(new DriverLocation(driverId, ping.latitude(), ping.longitude(),
+                        Float.isNaN(speed) ? null : speed, toLocalDateTime(recordedAt)));
+            }
+        }
+        acceptedCounter.increment(accepted);
+        staleCounter.increment(stale);
+        rejectedCounter.increment(rejected);
+        return new IngestResult(accepted, stale, rejected);
+    }
+
+    public Optional<Position> latest(Long driverId) {
+        if (driverId == null) {
+            return Optional.empty();
+        }
+        DriverPositionStore.Position position = store.get(driverId);
+        if (position == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Position(position.driverId(), position.latitude(), position.longitude(),
+                Float.isNaN(position.speed()) ? null : position.speed(), position.recordedAtMillis()));
+    }
+
+    /**
+     * Returns the stored trail of a driver since the given time, oldest first. Points still waiting
+     * for the next flush are not included.
+     */
+    public List<DriverLocation> trail(Long driverId, LocalDateTime since) {
+        return driverLocationRepository.findByDriverIdAndRecordedAtAfterOrderByRecordedAtAsc(driverId, since);
+    }
+
+    @Scheduled(fixedDelayString = "${app.driver-locations.flush-interval:10s}")
+    public void flushTrail() {
+        while (true) {
+            List<DriverLocation> batch = new ArrayList<>(Math.min(flushBatchSize, pendingTrailSize.get()));
+            DriverLocation point;
+            while (batch.size() < flushBatchSize && (point = pendingTrail.poll()) != null) {
+                batch.add(point);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingTrailSize.addAndGet(-batch.size());
+            try {
+                transaction.executeWithoutResult(status -> driverLocationRepository.saveAll(batch));
+                persistedCounter.increment(batch.size());
+            } catch (RuntimeException e) {
+                droppedCounter.increment(batch.size());
+                log.warn("Dropping {} driver trail points after a failed flush", batch.size(), e);
+                return;
+            }
+            if (batch.size() < flushBatchSize) {
+                return;
+            }
+        }
+    }
+
+    private void queueTrailPoint(DriverLocation point) {
+        if (pendingTrailSize.incrementAndGet() > maxPendingTrail) {
+            pendingTrailSize.decrementAndGet();
+            droppedCounter.increment();
+            return;
+        }
+        pendingTrail.add(point);
+    }
+
+    private static boolean valid(Ping ping, long now) {
+        Double latitude = ping.latitude();
+        Double longitude = ping.longitude();
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180
+                && (ping.recordedAt() == null || (ping.recordedAt() > 0 && ping.recordedAt() <= now + MAX_FUTURE_SKEW_MILLIS));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.backend.service;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latest position per driver in flat primitive arrays, one slot per driver. Each slot is guarded by
+ * a sequence number (a seqlock): a writer makes it odd with a compare-and-set, writes the fields and
+ * makes it even again; readers copy the fields and retry if the sequence moved. Nothing allocates on
+ * the update path once a driver has a slot, and readers never block writers.
+ * <p>
+ * Each slot also remembers the last point of the driver's trail, so the caller learns which updates
+ * are far enough (in time or distance) from the previous trail point to be worth persisting.
+ */
+final class DriverPositionStore {
+
+    static final int STALE = 0;
+    static final int UPDATED = 1;
+    static final int TRAIL_POINT = 2;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private final int capacity;
+    private final long trailMinIntervalMillis;
+    private final double trailMinDistanceMeters;
+    private final ConcurrentHashMap<Long, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private final AtomicLongArray sequence;
+    private final long[] driverIds;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final float[] speeds;
+    private final long[] recordedAt;
+    private final double[] trailLatitudes;
+    private final double[] trailLongitudes;
+    private final long[] trailRecordedAt;
+
+    record Position(long driverId, double latitude, double longitude, float speed, long recordedAtMillis) {
+    }
+
+    DriverPositionStore(int capacity, long trailMinIntervalMillis, double trailMinDistanceMeters) {
+        this.capacity = capacity;
+        this.trailMinIntervalMillis = trailMinIntervalMillis;
+        this.trailMinDistanceMeters = trailMinDistanceMeters;
+        this.sequence = new AtomicLongArray(capacity);
+        this.driverIds = new long[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.speeds = new float[capacity];
+        this.recordedAt = new long[capacity];
+        this.trailLatitudes = new double[capacity];
+        this.trailLongitudes = new double[capacity];
+        this.trailRecordedAt = new long[capacity];
+    }
+
+    int size() {
+        return Math.min(nextSlot.get(), capacity);
+    }
+
+    /**
+     * Returns the driver's slot, allocating one on first use, or -1 if the store is full.
+     */
+    int slot(long driverId) {
+        Integer slot = slots.get(driverId);
+        if (slot != null) {
+            return slot;
+        }
+        slot = slots.computeIfAbsent(driverId, id -> {
+            int next = nextSlot.getAndIncrement();
+            if (next >= capacity) {
+                return null;
+            }
+            driverIds[next] = id;
+            return next;
+        });
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Stores a ping unless the slot already holds a newer one. Returns {@link #STALE}, {@link #UPDATED},
+     * or {@link #TRAIL_POINT} if the ping should also be added to the history trail.
+     */
+    int update(int slot, double latitude, double longitude, float speed, long recordedAtMillis) {
+        long seq = lock(slot);
+        int result = STALE;
+        try {
+            if (recordedAtMillis > recordedAt[slot]) {
+                latitudes[slot] = latitude;
+                longitudes[slot] = longitude;
+                speeds[slot] = speed;
+                recordedAt[slot] = recordedAtMillis;
+                result = UPDATED;
+                if (trailRecordedAt[slot] == 0
+                        || recordedAtMillis - trailRecordedAt[slot] >= trailMinIntervalMillis
+                        || distanceMeters(trailLatitudes[slot], trailLongitudes[slot], latitude, longitude) >= trailMinDistanceMeters) {
+                    trailLatitudes[slot] = latitude;
+                    trailLongitudes[slot] = longitude;
+                    trailRecordedAt[slot] = recordedAtMillis;
+                    result = TRAIL_POINT;
+                }
+            }
+        } finally {
+            sequence.set(slot, seq + 2);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the latest position of a driver, or null if none was reported.
+     */
+    Position get(long driverId) {
+        Integer slot = slots.get(driverId);
+        if (slot == null) {
+            return null;
+        }
+        while (true) {
+            long seq = sequence.get(slot);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            double latitude = latitudes[slot];
+            double longitude = longitudes[slot];
+            float speed = speeds[slot];
+            long time = recordedAt[slot];
+            VarHandle.acquireFence();
+            if (sequence.get(slot) == seq) {
+                return time == 0 ? null : new Position(driverIds[slot], latitude, longitude, speed, time);
+            }
+        }
+    }
+
+    private long lock(int slot) {
+        while (true) {
+            long seq = sequence.get(slot);
+            if ((seq & 1) == 0 && sequence.compareAndSet(slot, seq, seq + 1)) {
+                return seq;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Equirectangular approximation; accurate to well under 1% at city distances.
+     */
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double x = Math.toRadians(lng2 - lng1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+}
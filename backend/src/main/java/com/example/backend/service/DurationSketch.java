@@ -0,0 +1,94 @@
+package com.example.backend.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-size quantile sketch for durations: 48 log-spaced buckets from 30 seconds to about 7 hours,
+ * each 15% wider than the last, so any quantile is within about 7%. When the total weight passes
+ * {@code maxWeight} every bucket is halved, so old samples fade and the sketch follows drift. Also
+ * keeps an exponentially weighted mean. Guarded by a ReentrantLock (see MenuPopularityService).
+ */
+final class DurationSketch {
+
+    private static final int BUCKETS = 48;
+    private static final double MIN_SECONDS = 30;
+    private static final double GROWTH = 1.15;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final double MEAN_ALPHA = 0.05;
+
+    private final float[] counts = new float[BUCKETS];
+    private final double maxWeight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double total;
+    private double mean;
+    private long samples;
+
+    DurationSketch(double maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    void add(double seconds) {
+        if (!(seconds > 0)) {
+            return;
+        }
+        int bucket = seconds <= MIN_SECONDS ? 0
+                : Math.min(BUCKETS - 1, (int) (Math.log(seconds / MIN_SECONDS) / LOG_GROWTH));
+        lock.lock();
+        try {
+            if (total + 1 > maxWeight) {
+                total = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] *= 0.5f;
+                    total += counts[i];
+                }
+            }
+            counts[bucket]++;
+            total++;
+            mean = samples == 0 ? seconds : mean + MEAN_ALPHA * (seconds - mean);
+            samples++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long samples() {
+        lock.lock();
+        try {
+            return samples;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double mean() {
+        lock.lock();
+        try {
+            return mean;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the q-quantile in seconds (geometric middle of its bucket), or NaN if empty.
+     */
+    double quantile(double q) {
+        lock.lock();
+        try {
+            if (total <= 0) {
+                return Double.NaN;
+            }
+            double target = q * total;
+            double seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target && counts[i] > 0) {
+                    return MIN_SECONDS * Math.pow(GROWTH, i + 0.5);
+                }
+            }
+            return MIN_SECONDS * Math.pow(GROWTH, BUCKETS - 0.5);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivery time estimates learned online from driver status transitions, held entirely in memory.
+ * <ul>
+ *   <li>Prep time (placed to OUT_FOR_DELIVERY) and travel time (OUT_FOR_DELIVERY to DELIVERED) per
+ *   restaurant, in {@link DurationSketch}es.</li>
+ *   <li>Effective travel speed (straight-line distance over travel time) per zone, a grid cell around
+ *   the pickup point, as a streaming mean.</li>
+ *   <li>The last drop-off point per customer and delivery address, taken from the driver's position at
+ *   delivery, so an order that is out for delivery to a known address can be estimated from the
+ *   driver's distance. Orders to an address not delivered to before use the travel quantiles.</li>
+ * </ul>
+ * Restaurants and zones with too few samples fall back to the global statistics, then to the
+ * configured defaults. Pickup state is not persisted; orders picked up before a restart are
+ * estimated from the restaurant's travel times instead.
+ */
+@Service
+public class EtaService {
+
+    private static final double SKETCH_WEIGHT = 500;
+    private static final long MIN_REMAINING_SECONDS = 120;
+    private static final double SPEED_ALPHA = 0.1;
+    private static final long MAX_POSITION_AGE_MILLIS = 5 * 60_000;
+    private static final long MAX_PICKUP_AGE_MILLIS = 6 * 3_600_000;
+
+    private final DriverLocationService driverLocationService;
+    private final Map<Long, RestaurantStats> restaurants = new ConcurrentHashMap<>();
+    private final RestaurantStats global = new RestaurantStats();
+    private final Map<Long, SpeedStats> zones = new ConcurrentHashMap<>();
+    private final SpeedStats globalSpeed = new SpeedStats();
+    private final Map<Long, Pickup> pickups = new ConcurrentHashMap<>();
+    private final Map<String, Point> dropOffs = new ConcurrentHashMap<>();
+    private final Counter prepSamples;
+    private final Counter travelSamples;
+
+    @Value("${app.eta.default-prep:20m}")
+    private Duration defaultPrep;
+
+    @Value("${app.eta.default-travel:15m}")
+    private Duration defaultTravel;
+
+    @Value("${app.eta.default-speed-mps:5}")
+    private double defaultSpeed;
+
+    @Value("${app.eta.min-samples:5}")
+    private int minSamples;
+
+    @Value("${app.eta.zone-cell-degrees:0.01}")
+    private double zoneCellDegrees;
+
+    /**
+     * @param seconds      expected seconds until delivery
+     * @param upperSeconds seconds by which the order is very likely (about p90) delivered
+     * @param arrivalAt    expected delivery time in epoch milliseconds
+     */
+    public record Eta(long seconds, long upperSeconds, long arrivalAt) {
+    }
+
+    private record Point(double latitude, double longitude) {
+    }
+
+    private record Pickup(long pickedUpAt, Point point) {
+    }
+
+    private static final class RestaurantStats {
+        final DurationSketch prep = new DurationSketch(SKETCH_WEIGHT);
+        final DurationSketch travel = new DurationSketch(SKETCH_WEIGHT);
+    }
+
+    private static final class SpeedStats {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double mean;
+        private long samples;
+
+        void add(double metersPerSecond) {
+            lock.lock();
+            try {
+                mean = samples == 0 ? metersPerSecond : mean + SPEED_ALPHA * (metersPerSecond - mean);
+                samples++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double mean(long minSamples) {
+            lock.lock();
+            try {
+                return samples >= minSamples ? mean : Double.NaN;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public EtaService(DriverLocationService driverLocationService, MeterRegistry meterRegistry) {
+        this.driverLocationService = driverLocationService;
+        this.prepSamples = Counter.builder("orders.eta.samples")
+                .description("Durations learned by the ETA model")
+                .tag("kind", "prep")
+                .register(meterRegistry);
+        this.travelSamples = Counter.builder("orders.eta.samples")
+                .description("Durations learned by the ETA model")
+                .tag("kind", "travel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Learns from a status change made by the assigned driver. Call after the change is saved.
+     */
+    public void recordTransition(Order order, String previousStatus) {
+        String status = order.getStatus();
+        if (order.getId() == null || status == null || status.equalsIgnoreCase(previousStatus)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        switch (status.toUpperCase()) {
+            case "OUT_FOR_DELIVERY" -> recordPickup(order, now);
+            case "DELIVERED" -> recordDelivery(order, now);
+            case "CANCELLED" -> pickups.remove(order.getId());
+            default -> {
+            }
+        }
+    }
+
+    private void recordPickup(Order order, long now) {
+        if (order.getOrderDate() != null) {
+            double prepSeconds = (now - epochMillis(order)) / 1000.0;
+            statsFor(order).prep.add(prepSeconds);
+            global.prep.add(prepSeconds);
+            prepSamples.increment();
+        }
+        var position = driverPosition(order, now);
+        pickups.put(order.getId(), new Pickup(now, position.orElse(null)));
+        if (pickups.size() > 10_000) {
+            pickups.values().removeIf(p -> now - p.pickedUpAt() > MAX_PICKUP_AGE_MILLIS);
+        }
+    }
+
+    private void recordDelivery(Order order, long now) {
+        Pickup pickup = pickups.remove(order.getId());
+        var position = driverPosition(order, now);
+        String dropOffKey = dropOffKey(order);
+        if (position.isPresent() && dropOffKey != null) {
+            dropOffs.put(dropOffKey, position.get());
+        }
+        if (pickup == null) {
+            return;
+        }
+        double travelSeconds = (now - pickup.pickedUpAt()) / 1000.0;
+        statsFor(order).travel.add(travelSeconds);
+        global.travel.add(travelSeconds);
+        travelSamples.increment();
+        if (pickup.point() != null && position.isPresent() && travelSeconds > 0) {
+            double meters = distanceMeters(pickup.point(), position.get());
+            if (meters > 200) {
+                double speed = meters / travelSeconds;
+                zones.computeIfAbsent(zone(pickup.point()), z -> new SpeedStats()).add(speed);
+                globalSpeed.add(speed);
+            }
+        }
+    }
+
+    /**
+     * Estimates when an order will be delivered. Empty for delivered and cancelled orders.
+     */
+    public Optional<Eta> estimate(Order order) {
+        String status = order.getStatus() == null ? "PENDING" : order.getStatus().toUpperCase();
+        if (status.equals("DELIVERED") || status.equals("CANCELLED") || order.getId() == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        RestaurantStats stats = order.getRestaurant() != null ? restaurants.get(order.getRestaurant().getId()) : null;
+        double travel = quantile(stats, false, 0.5, defaultTravel);
+        double travelUpper = quantile(stats, false, 0.9, defaultTravel.multipliedBy(3).dividedBy(2));
+
+        if (!status.equals("OUT_FOR_DELIVERY")) {
+            double elapsed = order.getOrderDate() != null ? (now - epochMillis(order)) / 1000.0 : 0;
+            double prep = quantile(stats, true, 0.5, defaultPrep);
+            double prepUpper = quantile(stats, true, 0.9, defaultPrep.multipliedBy(3).dividedBy(2));
+            long remaining = Math.max(MIN_REMAINING_SECONDS, Math.round(prep - elapsed));
+            long upper = Math.max(remaining, Math.round(prepUpper - elapsed));
+            return Optional.of(eta(now, remaining + Math.round(travel), upper + Math.round(travelUpper)));
+        }
+
+        var position = driverPosition(order, now);
+        String dropOffKey = dropOffKey(order);
+        Point dropOff = dropOffKey != null ? dropOffs.get(dropOffKey) : null;
+        if (position.isPresent() && dropOff != null) {
+            double meters = distanceMeters(position.get(), dropOff);
+            double speed = speedIn(zone(position.get()));
+            long seconds = Math.max(60, Math.round(meters / speed));
+            return Optional.of(eta(now, seconds, Math.round(seconds * 1.5)));
+        }
+        Pickup pickup = pickups.get(order.getId());
+        double sincePickup = pickup != null ? (now - pickup.pickedUpAt()) / 1000.0 : 0;
+        long remaining = Math.max(MIN_REMAINING_SECONDS, Math.round(travel - sincePickup));
+        return Optional.of(eta(now, remaining, Math.max(remaining, Math.round(travelUpper - sincePickup))));
+    }
+
+    private static Eta eta(long now, long seconds, long upperSeconds) {
+        return new Eta(seconds, Math.max(seconds, upperSeconds), now + seconds * 1000);
+    }
+
+    private double quantile(RestaurantStats stats, boolean prep, double q, Duration fallback) {
+        for (RestaurantStats candidate : new RestaurantStats[]{stats, global}) {
+            if (candidate != null) {
+                DurationSketch sketch = prep ? candidate.prep : candidate.travel;
+                if (sketch.samples() >= minSamples) {
+                    return sketch.quantile(q);
+                }
+            }
+        }
+        return fallback.toSeconds();
+    }
+
+    private double speedIn(long zone) {
+        SpeedStats stats = zones.get(zone);
+        double speed = stats != null ? stats.mean(minSamples) : Double.NaN;
+        if (Double.isNaN(speed)) {
+            speed = globalSpeed.mean(minSamples);
+        }
+        return Double.isNaN(speed) || speed <= 0 ? defaultSpeed : speed;
+    }
+
+    private RestaurantStats statsFor(Order order) {
+        if (order.getRestaurant() == null) {
+            return global;
+        }
+        return restaurants.computeIfAbsent(order.getRestaurant().getId(), id -> new RestaurantStats());
+    }
+
+    private Optional<Point> driverPosition(Order order, long now) {
+        if (order.getDriver() == null) {
+            return Optional.empty();
+        }
+        return driverLocationService.latest(order.getDriver().getId())
+                .filter(p -> now - p.recordedAt() <= MAX_POSITION_AGE_MILLIS)
+                .map(p -> new Point(p.latitude(), p.longitude()));
+    }
+
+    /**
+     * The same customer can order to home one day and to the office the next, so drop-offs are only
+     * reused for the same delivery address.
+     */
+    private static String dropOffKey(Order order) {
+        String address = order.getDeliveryAddress();
+        if (order.getUser() == null || order.getUser().getId() == null || address == null || address.isBlank()) {
+            return null;
+        }
+        return order.getUser().getId() + "|" + address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static double distanceMeters(Point from, Point to) {
+        return DriverPositionStore.distanceMeters(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+    }
+
+    private long zone(Point point) {
+        long row = (long) Math.floor(point.latitude() / zoneCellDegrees);
+        long column = (long) Math.floor(point.longitude() / zoneCellDegrees);
+        return (row << 32) ^ (column & 0xFFFFFFFFL);
+    }
+
+    private static long epochMillis(Order order) {
+        return order.getOrderDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.backend.service;
+
+import com.example.backend.model.OrderEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox events to a JSON-lines file (app.outbox.file), one object per line. Each batch is
+ * written with a single write and forced to disk before the relay removes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileOrderEventSink(ObjectMapper objectMapper, @Value("${app.outbox.file}") String file) throws IOException {
+        this.objectMapper = objectMapper;
+        this.file = Path.of(file);
+        if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+    }
+
+    @Override
+    public void deliver(List<OrderEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 192);
+        for (OrderEvent event : events) {
+            objectMapper.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
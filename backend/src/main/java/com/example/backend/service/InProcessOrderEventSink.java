@@ -0,0 +1,30 @@
+package com.example.backend.service;
+
+import com.example.backend.model.OrderEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Republishes outbox events as Spring application events, so in-process consumers only need an
+ * {@code @EventListener} method taking an {@link OrderEvent}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "in-process-enabled", havingValue = "true", matchIfMissing = true)
+public class InProcessOrderEventSink implements OrderEventSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    public InProcessOrderEventSink(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void deliver(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            publisher.publishEvent(event);
+        }
+    }
+}
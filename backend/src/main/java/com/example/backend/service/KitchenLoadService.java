@@ -0,0 +1,225 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Order;
+import com.example.backend.model.Restaurant;
+import com.example.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the orders each kitchen is working on (placed and not yet picked up, delivered or
+ * cancelled) in memory, so admission control and the catalog's load factor need no COUNT queries.
+ * Every order holds one ticket; releasing a ticket is idempotent, so a status change reported twice
+ * is harmless. A ticket only counts against the kitchen once the order is cash on delivery, paid, or
+ * confirmed: an unpaid online order may never be paid, and until it is it must not block other
+ * customers' orders. Tickets are rebuilt from the database at startup, and tickets older than
+ * app.kitchen.max-order-age are dropped in case an order left the kitchen by a path that does not
+ * report it. Admission is a soft limit: concurrent placements can overshoot capacity slightly.
+ */
+@Service
+public class KitchenLoadService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenLoadService.class);
+
+    public enum Admission { ADMITTED, QUEUED, REJECTED }
+
+    private record Ticket(long restaurantId, long placedAt, boolean counted) {
+    }
+
+    private final OrderService orderService;
+    private final Map<Long, LongAdder> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Counter admittedCounter;
+    private final Counter queuedCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${app.kitchen.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.kitchen.default-capacity:30}")
+    private int defaultCapacity;
+
+    @Value("${app.kitchen.queue-length:10}")
+    private int queueLength;
+
+    @Value("${app.kitchen.max-order-age:2h}")
+    private Duration maxOrderAge;
+
+    public KitchenLoadService(OrderService orderService, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.admittedCounter = admissionCounter(meterRegistry, "admitted");
+        this.queuedCounter = admissionCounter(meterRegistry, "queued");
+        this.rejectedCounter = admissionCounter(meterRegistry, "rejected");
+        meterRegistry.gauge("kitchen.orders.in.flight", inFlight,
+                counters -> counters.values().stream().mapToLong(LongAdder::sum).sum());
+    }
+
+    private static Counter admissionCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("kitchen.admissions")
+                .description("Order placements by kitchen admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a restaurant can take another order: ADMITTED below capacity, QUEUED within
+     * app.kitchen.queue-length orders beyond it, REJECTED after that.
+     */
+    public Admission admit(Restaurant restaurant) {
+        if (!enabled) {
+            return Admission.ADMITTED;
+        }
+        long load = load(restaurant.getId());
+        int capacity = capacity(restaurant);
+        if (load < capacity) {
+            admittedCounter.increment();
+            return Admission.ADMITTED;
+        }
+        if (load < (long) capacity + queueLength) {
+            queuedCounter.increment();
+            return Admission.QUEUED;
+        }
+        rejectedCounter.increment();
+        return Admission.REJECTED;
+    }
+
+    /**
+     * Starts tracking a placed order; it counts against its restaurant at once if it is already due to be cooked.
+     */
+    public void track(Order order) {
+        if (order.getRestaurant() == null) {
+            return;
+        }
+        track(order.getId(), order.getRestaurant().getId(), order.getOrderDate(),
+                counts(order.getStatus(), order.getPaymentMethod(), order.getPaymentStatus()));
+    }
+
+    private void track(Long orderId, Long restaurantId, LocalDateTime orderDate, boolean counted) {
+        if (orderId == null || restaurantId == null) {
+            return;
+        }
+        long placedAt = orderDate != null
+                ? orderDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        if (tickets.putIfAbsent(orderId, new Ticket(restaurantId, placedAt, counted)) == null && counted) {
+            counter(restaurantId).increment();
+        }
+    }
+
+    /**
+     * Stops tracking an order, once it is picked up, delivered, cancelled or expired.
+     */
+    public void release(Long orderId) {
+        Ticket ticket = orderId != null ? tickets.remove(orderId) : null;
+        if (ticket != null && ticket.counted()) {
+            LongAdder counter = inFlight.get(ticket.restaurantId());
+            if (counter != null) {
+                counter.decrement();
+            }
+        }
+    }
+
+    /**
+     * Releases the order if the new status means it has left the kitchen, and starts counting it once it is confirmed.
+     */
+    public void onStatusChange(Long orderId, String status) {
+        if (status == null) {
+            return;
+        }
+        if (!isKitchenStatus(status)) {
+            release(orderId);
+        } else if (!status.equalsIgnoreCase("PENDING")) {
+            startCounting(orderId);
+        }
+    }
+
+    /**
+     * Starts counting an order against its kitchen once its payment has arrived.
+     */
+    public void onPaymentChange(Long orderId, String paymentStatus) {
+        if ("PAID".equalsIgnoreCase(paymentStatus)) {
+            startCounting(orderId);
+        }
+    }
+
+    private void startCounting(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        // Counted inside the map update, so a concurrent release sees either the held or the counted ticket
+        tickets.computeIfPresent(orderId, (id, ticket) -> {
+            if (ticket.counted()) {
+                return ticket;
+            }
+            counter(ticket.restaurantId()).increment();
+            return new Ticket(ticket.restaurantId(), ticket.placedAt(), true);
+        });
+    }
+
+    private LongAdder counter(long restaurantId) {
+        return inFlight.computeIfAbsent(restaurantId, id -> new LongAdder());
+    }
+
+    public long load(Long restaurantId) {
+        LongAdder counter = restaurantId != null ? inFlight.get(restaurantId) : null;
+        return counter != null ? Math.max(0, counter.sum()) : 0;
+    }
+
+    /**
+     * Orders in the kitchen divided by its capacity; 1.0 or more means new orders queue or are rejected.
+     */
+    public double loadFactor(Restaurant restaurant) {
+        return (double) load(restaurant.getId()) / capacity(restaurant);
+    }
+
+    private int capacity(Restaurant restaurant) {
+        Integer capacity = restaurant.getKitchenCapacity();
+        return Math.max(1, capacity != null ? capacity : defaultCapacity);
+    }
+
+    private static boolean counts(String status, String paymentMethod, String paymentStatus) {
+        return "COD".equalsIgnoreCase(paymentMethod)
+                || "PAID".equalsIgnoreCase(paymentStatus)
+                || status != null && !status.equalsIgnoreCase("PENDING");
+    }
+
+    private static boolean isKitchenStatus(String status) {
+        String upper = status.toUpperCase();
+        return upper.equals("PENDING") || upper.equals("CONFIRMED") || upper.equals("PREPARING");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<OrderRepository.KitchenOrder> orders = orderService.findKitchenOrders();
+        for (OrderRepository.KitchenOrder order : orders) {
+            track(order.getId(), order.getRestaurantId(), order.getOrderDate(),
+                    counts(order.getStatus(), order.getPaymentMethod(), order.getPaymentStatus()));
+        }
+        log.info("Tracking {} orders in restaurant kitchens", orders.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.kitchen.sweep-interval:1m}")
+    public void dropStaleTickets() {
+        long cutoff = System.currentTimeMillis() - maxOrderAge.toMillis();
+        tickets.forEach((orderId, ticket) -> {
+            if (ticket.placedAt() < cutoff) {
+                release(orderId);
+            }
+        });
+    }
+}
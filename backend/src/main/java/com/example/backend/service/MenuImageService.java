@@ -0,0 +1,171 @@
+package com.example.backend.service;
+
+import com.example.backend.model.MenuItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded menu images as JPEG variants at {@link MenuItem#IMAGE_WIDTHS}, content-addressed by the
+ * SHA-256 of the uploaded bytes: {@code <dir>/<first two hex chars>/<hash>-<width>.jpg}. The same picture
+ * uploaded twice is stored once, and a file never changes once written, so it can be cached forever.
+ */
+@Service
+public class MenuImageService {
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})-(\\d{1,5})\\.jpg");
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final Path root;
+
+    public MenuImageService(@Value("${app.images.dir:data/images}") String dir) {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Decodes, resizes and stores an uploaded image. Returns its SHA-256 hash.
+     *
+     * @throws IllegalArgumentException if the bytes are not a readable image or the image is too large
+     */
+    public String store(byte[] upload) throws IOException {
+        String hash = sha256(upload);
+        boolean complete = true;
+        for (int width : MenuItem.IMAGE_WIDTHS) {
+            complete &= Files.exists(variantPath(hash, width));
+        }
+        if (complete) {
+            return hash;
+        }
+
+        BufferedImage original = decode(upload);
+        Files.createDirectories(variantPath(hash, MenuItem.IMAGE_WIDTHS[0]).getParent());
+        for (int width : MenuItem.IMAGE_WIDTHS) {
+            Path target = variantPath(hash, width);
+            if (Files.exists(target)) {
+                continue;
+            }
+            byte[] jpeg = encodeJpeg(resize(original, width));
+            // Write to a temp file and rename, so readers never see a half-written variant
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, jpeg);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Maps a public file name ({@code <hash>-<width>.jpg}) to a stored file, or null if there is none.
+     */
+    public Path resolve(String fileName) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Path path = variantPath(matcher.group(1), Integer.parseInt(matcher.group(2)));
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private Path variantPath(String hash, int width) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + width + ".jpg");
+    }
+
+    private static BufferedImage decode(byte[] upload) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(upload))) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Check the header before decoding so a tiny file cannot claim a huge canvas
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalArgumentException("image is too large");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales to the given width (never up), halving first for large reductions to keep quality,
+     * and flattens transparency onto white since JPEG has no alpha.
+     */
+    private static BufferedImage resize(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.backend.service;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.repository.MenuItemRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Replaces a restaurant's menu from one uploaded file (a JSON array of items, or CSV with a header row).
+ * Rows are matched to existing items by id if given, otherwise by name (case-insensitive). The diff is
+ * computed and applied in a single transaction against the restaurant's items locked FOR UPDATE:
+ * inserts and updates go out as JDBC batches (ids are assigned in the application, so inserts batch
+ * too) and deletes as one bulk DELETE. Items that were ever ordered are not deleted, and a row with no
+ * image keeps the item's current one. Invalid rows are skipped and reported; the rest of the file is still applied.
+ * The catalog caches are invalidated once, after commit.
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuImportService.class);
+    private static final String MENU_ITEMS_ROLE = Restaurant.class.getName() + ".menuItems";
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemService menuItemService;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public MenuImportService(MenuItemRepository menuItemRepository,
+                             MenuItemService menuItemService,
+                             OrderService orderService,
+                             ObjectMapper objectMapper,
+                             EntityManagerFactory entityManagerFactory,
+                             PlatformTransactionManager transactionManager) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuItemService = menuItemService;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public record RowError(int row, String name, String error) {
+    }
+
+    public record ImportReport(int inserted, int updated, int deleted, int unchanged, List<RowError> errors) {
+    }
+
+    private record MenuRow(int row, Long id, String name, String description, Double price, String image) {
+    }
+
+    /**
+     * Imports a menu file. With {@code deleteMissing}, existing items that are not in the file are removed.
+     */
+    public ImportReport importMenu(Restaurant restaurant, InputStream body, boolean csv, boolean deleteMissing)
+            throws IOException {
+        List<RowError> errors = new ArrayList<>();
+        List<MenuRow> rows = csv ? parseCsv(body, errors) : parseJson(body, errors);
+
+        // Orders live on every shard, so this lookup cannot run inside the import transaction
+        Set<Long> checked = new HashSet<>();
+        Set<Long> ordered = Set.of();
+        if (deleteMissing) {
+            checked.addAll(readTransaction.execute(status -> menuItemRepository.findIdsByRestaurantId(restaurant.getId())));
+            ordered = orderService.findOrderedMenuItemIds(checked);
+        }
+        Set<Long> orderedItems = ordered;
+
+        ImportReport report = writeTransaction.execute(status -> {
+            // Diffed against rows locked here: edits committed meanwhile are seen, later ones wait for the import
+            List<MenuItem> existing = menuItemRepository.lockByRestaurantId(restaurant.getId());
+            Map<Long, MenuItem> byId = new HashMap<>();
+            Map<String, MenuItem> byName = new HashMap<>();
+            for (MenuItem item : existing) {
+                byId.put(item.getId(), item);
+                if (item.getName() != null) {
+                    byName.putIfAbsent(nameKey(item.getName()), item);
+                }
+            }
+
+            List<MenuItem> inserts = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            Set<String> namesInFile = new HashSet<>();
+            int updated = 0;
+            int unchanged = 0;
+            for (MenuRow row : rows) {
+                if (!namesInFile.add(nameKey(row.name()))) {
+                    errors.add(new RowError(row.row(), row.name(), "duplicate name in file"));
+                    continue;
+                }
+                MenuItem match = row.id() != null ? byId.get(row.id()) : byName.get(nameKey(row.name()));
+                if (row.id() != null && match == null) {
+                    errors.add(new RowError(row.row(), row.name(), "no menu item " + row.id() + " in this restaurant"));
+                    continue;
+                }
+                if (match == null) {
+                    MenuItem item = new MenuItem();
+                    copy(row, item);
+                    item.setRestaurant(restaurant);
+                    inserts.add(item);
+                } else if (!seen.add(match.getId())) {
+                    errors.add(new RowError(row.row(), row.name(), "menu item " + match.getId() + " appears twice"));
+                } else if (differs(row, match)) {
+                    copy(row, match);
+                    updated++;
+                } else {
+                    unchanged++;
+                }
+            }
+
+            List<Long> deletes = new ArrayList<>();
+            if (deleteMissing) {
+                for (MenuItem item : existing) {
+                    if (seen.contains(item.getId())) {
+                        continue;
+                    }
+                    if (orderedItems.contains(item.getId())) {
+                        errors.add(new RowError(0, item.getName(), "not deleted: item has been ordered"));
+                    } else if (checked.contains(item.getId())) {
+                        // Items added after the order lookup are left for the next import
+                        deletes.add(item.getId());
+                    }
+                }
+            }
+
+            menuItemRepository.saveAll(inserts);
+            if (!deletes.isEmpty()) {
+                menuItemRepository.deleteAllByIdInBatch(deletes);
+            }
+            return new ImportReport(inserts.size(), updated, deletes.size(), unchanged, errors);
+        });
+        evictCatalogCaches(restaurant.getId());
+        errors.sort(Comparator.comparingInt(RowError::row));
+
+        log.info("Menu import for restaurant {}: {} inserted, {} updated, {} deleted, {} errors",
+                restaurant.getId(), report.inserted(), report.updated(), report.deleted(), errors.size());
+        return report;
+    }
+
+    private List<MenuRow> parseJson(InputStream body, List<RowError> errors) throws IOException {
+        List<MenuRow> rows = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Menu JSON must be an array of items");
+            }
+            int row = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                row++;
+                JsonNode node = parser.readValueAsTree();
+                addRow(rows, errors, row,
+                        text(node, "id"), text(node, "name"), text(node, "description"),
+                        text(node, "price"), text(node, "image"));
+            }
+        }
+        return rows;
+    }
+
+    private List<MenuRow> parseCsv(InputStream body, List<RowError> errors) throws IOException {
+        List<MenuRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return rows;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = Csv.split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name") || !columns.containsKey("price")) {
+                throw new IOException("Menu CSV needs name and price columns");
+            }
+            String line;
+            int row = 0;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                List<String> fields = Csv.split(line);
+                addRow(rows, errors, row,
+                        field(fields, columns.get("id")), field(fields, columns.get("name")),
+                        field(fields, columns.get("description")), field(fields, columns.get("price")),
+                        field(fields, columns.get("image")));
+            }
+        }
+        return rows;
+    }
+
+    private static void addRow(List<MenuRow> rows, List<RowError> errors, int row,
+                               String id, String name, String description, String price, String image) {
+        if (name == null || name.isBlank()) {
+            errors.add(new RowError(row, name, "name is required"));
+            return;
+        }
+        if (name.length() > 255) {
+            errors.add(new RowError(row, name, "name is longer than 255 characters"));
+            return;
+        }
+        if (description != null && description.length() > 1000) {
+            errors.add(new RowError(row, name, "description is longer than 1000 characters"));
+            return;
+        }
+        Double parsedPrice;
+        Long parsedId = null;
+        try {
+            parsedPrice = price == null || price.isBlank() ? null : Double.valueOf(price.trim());
+            if (id != null && !id.isBlank()) {
+                parsedId = Long.valueOf(id.trim());
+            }
+        } catch (NumberFormatException e) {
+            errors.add(new RowError(row, name, "invalid number: " + e.getMessage()));
+            return;
+        }
+        if (parsedPrice == null || parsedPrice < 0 || parsedPrice.isNaN() || parsedPrice.isInfinite()) {
+            errors.add(new RowError(row, name, "price must be a non-negative number"));
+            return;
+        }
+        rows.add(new MenuRow(row, parsedId, name.trim(), blankToNull(description), parsedPrice, blankToNull(image)));
+    }
+
+    private void evictCatalogCaches(Long restaurantId) {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictEntityData(MenuItem.class);
+        cache.evictCollectionData(MENU_ITEMS_ROLE, restaurantId);
+        cache.evictDefaultQueryRegion();
+        menuItemService.invalidateMenus();
+    }
+
+    /**
+     * A row without an image leaves the item's image alone, so re-importing a menu never drops an uploaded picture.
+     */
+    private static boolean differs(MenuRow row, MenuItem item) {
+        return !Objects.equals(row.name(), item.getName())
+                || !Objects.equals(row.description(), item.getDescription())
+                || !Objects.equals(row.price(), item.getPrice())
+                || row.image() != null && !row.image().equals(item.getImage());
+    }
+
+    private static void copy(MenuRow row, MenuItem item) {
+        item.setName(row.name());
+        item.setDescription(row.description());
+        item.setPrice(row.price());
+        if (row.image() != null) {
+            item.setImage(row.image());
+        }
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String field(List<String> fields, Integer column) {
+        return column == null || column >= fields.size() ? null : fields.get(column);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -2,26 +2,80 @@ package com.example.backend.service;
 
 import com.example.backend.model.MenuItem;
 import com.example.backend.repository.MenuItemRepository;
+import com.example.backend.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 @Service
 public class MenuItemService {
     private final MenuItemRepository menuItemRepository;
+    private final SingleFlightCache<Long, List<MenuItem>> menus;
 
-    public MenuItemService(MenuItemRepository menuItemRepository) {
+    public MenuItemService(MenuItemRepository menuItemRepository,
+                           RestaurantRepository restaurantRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.catalog.fresh-for:10s}") Duration freshFor,
+                           @Value("${app.catalog.stale-for:1m}") Duration staleFor) {
         this.menuItemRepository = menuItemRepository;
+        // Own persistence context, so the shared lists hold detached items rather than one request's managed ones
+        TransactionTemplate loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Unknown restaurants load as null, which the cache does not keep, so made-up ids cannot fill it
+        this.menus = new SingleFlightCache<>("restaurant-menu",
+                restaurantId -> loadTransaction.execute(status -> {
+                    List<MenuItem> items = menuItemRepository.findByRestaurantId(restaurantId);
+                    if (items.isEmpty() && !restaurantRepository.existsById(restaurantId)) {
+                        return null;
+                    }
+                    return List.copyOf(items);
+                }),
+                refreshExecutor, freshFor, staleFor, meterRegistry);
     }
 
+    /**
+     * A restaurant's menu. Concurrent misses for the same restaurant share one query (see {@link SingleFlightCache});
+     * the returned list is shared and unmodifiable. Empty for a restaurant that does not exist.
+     */
     public List<MenuItem> findByRestaurantId(Long restaurantId) {
-        return menuItemRepository.findByRestaurantId(restaurantId);
+        List<MenuItem> items = menus.get(restaurantId);
+        return items != null ? items : List.of();
     }
 
+    @Transactional(readOnly = true)
     public Optional<MenuItem> findById(Long id) { return menuItemRepository.findById(id); }
 
-    public MenuItem save(MenuItem menuItem) { return menuItemRepository.save(menuItem); }
+    /**
+     * Menu writes are rare, and an item can move between restaurants, so every write drops all cached menus.
+     */
+    public MenuItem save(MenuItem menuItem) {
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menus.invalidateAll();
+        return saved;
+    }
+
+    public void delete(Long id) {
+        menuItemRepository.deleteById(id);
+        menus.invalidateAll();
+    }
 
-    public void delete(Long id) { menuItemRepository.deleteById(id); }
+    /**
+     * For writers that bypass this service, such as the bulk menu import.
+     */
+    public void invalidateMenus() {
+        menus.invalidateAll();
+    }
 }
@@ -0,0 +1,137 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks "popular now" menu items per restaurant without querying order_item.
+ * Each restaurant gets a fixed-size Space-Saving sketch fed from placed orders,
+ * so memory stays bounded no matter how large the menu or order history is.
+ * Older orders fade out through exponential (forward) decay.
+ */
+@Service
+public class MenuPopularityService {
+
+    @Value("${popularity.capacity:32}")
+    private int capacity;
+
+    @Value("${popularity.half-life-minutes:60}")
+    private long halfLifeMinutes;
+
+    private final Map<Long, Sketch> sketches = new ConcurrentHashMap<>();
+    private LongSupplier clock = System::currentTimeMillis;
+
+    /**
+     * Records that a quantity of a menu item was ordered from a restaurant.
+     */
+    public void record(Long restaurantId, Long menuItemId, int quantity) {
+        if (restaurantId == null || menuItemId == null || quantity <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        sketches.computeIfAbsent(restaurantId, id -> new Sketch(capacity, halfLifeMinutes * 60_000L, now))
+                .offer(menuItemId, quantity, now);
+    }
+
+    /**
+     * Returns decayed popularity scores for the tracked items of a restaurant.
+     * Items that are not tracked by the sketch are simply absent.
+     */
+    public Map<Long, Double> scores(Long restaurantId) {
+        Sketch sketch = sketches.get(restaurantId);
+        if (sketch == null) {
+            return Map.of();
+        }
+        return sketch.snapshot(clock.getAsLong());
+    }
+
+    /**
+     * Replaces the wall clock, for tests.
+     */
+    void useClock(LongSupplier millisClock) {
+        clock = millisClock;
+    }
+
+    /**
+     * Space-Saving heavy-hitters sketch with forward decay. Counts are stored
+     * relative to a landmark time and scaled down on read, so an insert never
+     * has to touch the other counters. The landmark is moved forward before the
+     * weights grow large enough to lose precision. Guarded by a ReentrantLock
+     * rather than synchronized so virtual threads do not pin their carrier.
+     */
+    private static final class Sketch {
+        private static final double RESCALE_THRESHOLD_HALF_LIVES = 32;
+
+        private final long[] itemIds;
+        private final double[] counts;
+        private final long halfLifeMillis;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int size;
+        private long landmark;
+
+        Sketch(int capacity, long halfLifeMillis, long now) {
+            this.itemIds = new long[Math.max(1, capacity)];
+            this.counts = new double[itemIds.length];
+            this.halfLifeMillis = Math.max(1, halfLifeMillis);
+            this.landmark = now;
+        }
+
+        void offer(long itemId, int quantity, long now) {
+            lock.lock();
+            try {
+                double halfLives = (double) (now - landmark) / halfLifeMillis;
+                if (halfLives > RESCALE_THRESHOLD_HALF_LIVES) {
+                    double factor = Math.pow(2, -halfLives);
+                    for (int i = 0; i < size; i++) {
+                        counts[i] *= factor;
+                    }
+                    landmark = now;
+                    halfLives = 0;
+                }
+                double weight = quantity * Math.pow(2, halfLives);
+
+                int min = 0;
+                for (int i = 0; i < size; i++) {
+                    if (itemIds[i] == itemId) {
+                        counts[i] += weight;
+                        return;
+                    }
+                    if (counts[i] < counts[min]) {
+                        min = i;
+                    }
+                }
+                if (size < itemIds.length) {
+                    itemIds[size] = itemId;
+                    counts[size] = weight;
+                    size++;
+                    return;
+                }
+                // Evict the smallest counter; the newcomer inherits its count as an upper bound.
+                itemIds[min] = itemId;
+                counts[min] += weight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<Long, Double> snapshot(long now) {
+            lock.lock();
+            try {
+                double scale = Math.pow(2, -(double) (now - landmark) / halfLifeMillis);
+                Map<Long, Double> result = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    result.put(itemIds[i], counts[i] * scale);
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.backend.service;
+
+import com.example.backend.config.OrderShards;
+import com.example.backend.model.ArchivedOrder;
+import com.example.backend.model.ArchivedOrderItem;
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Order;
+import com.example.backend.model.OrderItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.TimeOrderedIdGenerator;
+import com.example.backend.model.User;
+import com.example.backend.repository.ArchivedOrderItemRepository;
+import com.example.backend.repository.ArchivedOrderRepository;
+import com.example.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves delivered and cancelled orders older than app.archive.min-age out of {@code orders} and
+ * {@code order_item} into {@code orders_archive} and {@code order_items_archive}, so the hot tables
+ * and their indexes only hold recent orders. Each shard is drained in batches; a batch is copied and
+ * deleted in one transaction, with the source rows locked, so an order is never in both places or
+ * in neither. Candidates are found by id range, since ids grow with time.
+ * <p>
+ * Archived orders can still be read: OrderService falls back to {@link #findArchived(Long)} for ids
+ * that are no longer in {@code orders}, and merges archived rows into the order history and the order lists.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final OrderShards orderShards;
+    private final TransactionTemplate writeTransaction;
+    private final Counter archivedCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               ArchivedOrderItemRepository archivedOrderItemRepository,
+                               OrderShards orderShards,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+        this.orderShards = orderShards;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("orders.archived")
+                .description("Terminal orders moved to the archive tables")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:1h}", initialDelayString = "${app.archive.initial-delay:5m}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives every eligible order on every shard. Returns how many orders were moved.
+     */
+    public int archive() {
+        long cutoffMillis = System.currentTimeMillis() - minAge.toMillis();
+        long maxId = TimeOrderedIdGenerator.firstIdAt(cutoffMillis);
+        LocalDateTime cutoff = LocalDateTime.ofInstant(Instant.ofEpochMilli(cutoffMillis), ZoneId.systemDefault());
+        int total = 0;
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            total += orderShards.callOnShard(shard, () -> archiveCurrentShard(maxId, cutoff));
+        }
+        if (total > 0) {
+            log.info("Archived {} orders older than {}", total, minAge);
+        }
+        return total;
+    }
+
+    private int archiveCurrentShard(long maxId, LocalDateTime cutoff) {
+        int size = Math.max(1, batchSize);
+        int total = 0;
+        while (true) {
+            Integer moved = writeTransaction.execute(status -> {
+                List<Long> ids = orderRepository.lockArchivableIds(maxId, cutoff, PageRequest.of(0, size));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+                List<ArchivedOrder> archived = new ArrayList<>(orders.size());
+                List<ArchivedOrderItem> archivedItems = new ArrayList<>();
+                for (Order order : orders) {
+                    archived.add(ArchivedOrder.of(order, now));
+                    for (OrderItem item : order.getItems()) {
+                        archivedItems.add(new ArchivedOrderItem(item.getId(), order.getId(),
+                                item.getMenuItem() != null ? item.getMenuItem().getId() : null, item.getQuantity()));
+                    }
+                }
+                // persist, not save: the ids are already set and save() would merge (one SELECT per row)
+                archived.forEach(entityManager::persist);
+                archivedItems.forEach(entityManager::persist);
+                // Removing the order cascades to its items and join-table rows
+                orders.forEach(entityManager::remove);
+                return orders.size();
+            });
+            int count = moved != null ? moved : 0;
+            total += count;
+            archivedCounter.increment(count);
+            if (count < size) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds an archived order as a read-only {@link Order} ({@link Order#isArchived()} is true).
+     * Must be called inside a transaction on the order's shard. The user, restaurant, driver and menu
+     * items are bare references, since the catalog is on shard 0; OrderService resolves them there.
+     */
+    public Optional<Order> findArchived(Long id) {
+        return archivedOrderRepository.findById(id)
+                .map(archived -> toOrder(archived, archivedOrderItemRepository.findByOrderIdOrderByIdAsc(id)));
+    }
+
+    /**
+     * A user's archived orders on the current shard, newest first; see {@link #findArchived(Long)}.
+     */
+    public List<Order> findArchivedByUserId(Long userId, Sort sort) {
+        return toOrders(archivedOrderRepository.findByUserId(userId, sort));
+    }
+
+    /**
+     * A driver's archived orders on the current shard, newest first; see {@link #findArchived(Long)}.
+     */
+    public List<Order> findArchivedByDriverId(Long driverId, Sort sort) {
+        return toOrders(archivedOrderRepository.findByDriverId(driverId, sort));
+    }
+
+    /**
+     * Every archived order on the current shard, newest first; see {@link #findArchived(Long)}.
+     */
+    public List<Order> findAllArchived(Sort sort) {
+        return toOrders(archivedOrderRepository.findAll(sort));
+    }
+
+    private List<Order> toOrders(List<ArchivedOrder> archived) {
+        if (archived.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<ArchivedOrderItem>> itemsByOrder = new HashMap<>();
+        for (ArchivedOrderItem item : archivedOrderItemRepository.findByOrderIdInOrderByIdAsc(
+                archived.stream().map(ArchivedOrder::getId).toList())) {
+            itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+        }
+        List<Order> orders = new ArrayList<>(archived.size());
+        for (ArchivedOrder order : archived) {
+            orders.add(toOrder(order, itemsByOrder.getOrDefault(order.getId(), List.of())));
+        }
+        return orders;
+    }
+
+    private Order toOrder(ArchivedOrder archived, List<ArchivedOrderItem> archivedItems) {
+        Order order = new Order();
+        order.setId(archived.getId());
+        order.setUser(reference(User.class, archived.getUserId()));
+        order.setRestaurant(reference(Restaurant.class, archived.getRestaurantId()));
+        order.setDriver(reference(DeliveryDriver.class, archived.getDriverId()));
+        order.setOrderDate(archived.getOrderDate());
+        order.setDeliveryAddress(archived.getDeliveryAddress());
+        order.setTotalAmount(archived.getTotalAmount());
+        order.setPromoCode(archived.getPromoCode());
+        order.setStatus(archived.getStatus());
+        order.setPaymentStatus(archived.getPaymentStatus());
+        order.setPaymentMethod(archived.getPaymentMethod());
+        List<OrderItem> items = new ArrayList<>();
+        for (ArchivedOrderItem archivedItem : archivedItems) {
+            OrderItem item = new OrderItem();
+            item.setId(archivedItem.getId());
+            item.setMenuItem(reference(MenuItem.class, archivedItem.getMenuItemId()));
+            item.setQuantity(archivedItem.getQuantity());
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setArchived(true);
+        return order;
+    }
+
+    private <T> T reference(Class<T> type, Long id) {
+        return id != null ? entityManager.getReference(type, id) : null;
+    }
+}
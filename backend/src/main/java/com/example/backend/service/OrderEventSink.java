@@ -0,0 +1,16 @@
+package com.example.backend.service;
+
+import com.example.backend.model.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Destination for order events drained from the outbox by {@link OrderOutboxRelay}. Every sink bean
+ * receives every batch, oldest event first. Delivery is at-least-once: if any sink throws, the batch
+ * stays in the outbox and is offered to all sinks again, so consumers should ignore event ids they
+ * have already seen.
+ */
+public interface OrderEventSink {
+
+    void deliver(List<OrderEvent> events) throws Exception;
+}
@@ -0,0 +1,173 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cancels orders whose payment is still PENDING after app.orders.payment-expiry (status CANCELLED,
+ * payment EXPIRED, QR dropped). Deadlines sit in an in-memory {@link TimingWheel} instead of being
+ * found by periodic table scans; the wheel is filled from the database at startup and then kept
+ * up to date as orders are placed and paid. Due orders are expired in batched UPDATEs that re-check
+ * the order is still unpaid, so a stale deadline never cancels a paid or confirmed order. A batch
+ * that fails goes back on the wheel and is retried after app.orders.expiry-retry.
+ */
+@Service
+public class OrderExpiryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryService.class);
+
+    private final OrderService orderService;
+    private final KitchenLoadService kitchenLoadService;
+    private final Duration paymentExpiry;
+    private final long tickMillis;
+    private final long retryTicks;
+    private final int batchSize;
+    private final TimingWheel wheel;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter expiredCounter;
+
+    public OrderExpiryService(OrderService orderService,
+                              KitchenLoadService kitchenLoadService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.orders.payment-expiry:15m}") Duration paymentExpiry,
+                              @Value("${app.orders.expiry-tick:1s}") Duration tick,
+                              @Value("${app.orders.expiry-retry:30s}") Duration retry,
+                              @Value("${app.orders.expiry-batch-size:1000}") int batchSize) {
+        this.orderService = orderService;
+        this.kitchenLoadService = kitchenLoadService;
+        this.paymentExpiry = paymentExpiry;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.retryTicks = Math.max(1, retry.toMillis() / tickMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new TimingWheel(System.currentTimeMillis() / tickMillis);
+        this.expiredCounter = Counter.builder("orders.payment.expired")
+                .description("Orders cancelled because their payment did not arrive in time")
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.payment.expiry.scheduled", this, OrderExpiryService::scheduledCount);
+    }
+
+    /**
+     * Starts the expiry clock for a newly placed unpaid order.
+     */
+    public void schedule(Long orderId, LocalDateTime orderDate) {
+        if (orderId == null) {
+            return;
+        }
+        long deadline = toTick(orderDate != null ? orderDate : LocalDateTime.now());
+        lock.lock();
+        try {
+            wheel.schedule(orderId, deadline);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the expiry clock, e.g. once the order is paid or cancelled.
+     */
+    public void cancel(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            wheel.cancel(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int scheduledCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<OrderRepository.ExpirableOrder> orders = orderService.findExpirableOrders();
+        lock.lock();
+        try {
+            for (OrderRepository.ExpirableOrder order : orders) {
+                LocalDateTime placed = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+                wheel.schedule(order.getId(), toTick(placed));
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Scheduled payment expiry for {} pending orders", orders.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry-tick:1s}")
+    public void expireDueOrders() {
+        List<Long> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advanceTo(System.currentTimeMillis() / tickMillis, due);
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        int expired = 0;
+        List<Long> failed = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                List<Long> ids = orderService.expirePendingPayments(batch);
+                ids.forEach(kitchenLoadService::release);
+                expired += ids.size();
+            } catch (RuntimeException e) {
+                log.warn("Could not expire {} unpaid orders; retrying them later", batch.size(), e);
+                failed.addAll(batch);
+            }
+        }
+        if (!failed.isEmpty()) {
+            retry(failed);
+        }
+        expiredCounter.increment(expired);
+        log.info("Expired {} unpaid orders ({} deadlines due)", expired, due.size());
+    }
+
+    /**
+     * Puts deadlines back on the wheel, unless the order was rescheduled or cancelled while its batch was running.
+     */
+    private void retry(List<Long> orderIds) {
+        long retryTick = System.currentTimeMillis() / tickMillis + retryTicks;
+        lock.lock();
+        try {
+            for (Long orderId : orderIds) {
+                if (!wheel.contains(orderId)) {
+                    wheel.schedule(orderId, retryTick);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long toTick(LocalDateTime orderDate) {
+        long deadlineMillis = orderDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + paymentExpiry.toMillis();
+        // Round up so an order never expires before its full window has passed
+        return Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.backend.service;
+
+import com.example.backend.config.OrderShards;
+import com.example.backend.model.OrderEvent;
+import com.example.backend.repository.OrderEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the order outbox on every shard in id order and hands each batch to all {@link OrderEventSink}s.
+ * A batch is deleted only after every sink accepted it; on failure the relay stops for that shard and
+ * retries from the same event on the next run. Because an order's events all live on the order's
+ * shard and ids grow with time, consumers see each order's events in the order they happened.
+ */
+@Service
+public class OrderOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderShards orderShards;
+    private final List<OrderEventSink> sinks;
+    private final TransactionTemplate transaction;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    public OrderOutboxRelay(OrderEventRepository orderEventRepository,
+                            OrderShards orderShards,
+                            List<OrderEventSink> sinks,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.orderEventRepository = orderEventRepository;
+        this.orderShards = orderShards;
+        this.sinks = sinks;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.deliveredCounter = Counter.builder("orders.outbox.delivered")
+                .description("Order events handed to all outbox sinks")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.outbox.failed")
+                .description("Outbox batches that a sink rejected and that will be retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500ms}")
+    public void relay() {
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            orderShards.callOnShard(shard, () -> {
+                drainCurrentShard();
+                return null;
+            });
+        }
+    }
+
+    private void drainCurrentShard() {
+        while (true) {
+            List<OrderEvent> events = transaction.execute(
+                    status -> orderEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize)));
+            if (events == null || events.isEmpty()) {
+                return;
+            }
+            for (OrderEventSink sink : sinks) {
+                try {
+                    sink.deliver(events);
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    log.warn("Outbox sink {} failed; {} events will be retried", sink.getClass().getSimpleName(), events.size(), e);
+                    return;
+                }
+            }
+            List<Long> ids = new ArrayList<>(events.size());
+            for (OrderEvent event : events) {
+                ids.add(event.getId());
+            }
+            transaction.executeWithoutResult(status -> orderEventRepository.deleteAllByIdInBatch(ids));
+            deliveredCounter.increment(events.size());
+            if (events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.config.ReadReplicaContext;
+import com.example.backend.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade for the hot order reads: order detail and tracking polls, and driver dashboards.
+ * Reads run on a small dedicated pool and complete a future, so the controller can return it and
+ * release the servlet thread; Tomcat's NIO poller keeps the idle connections, not a thread each. The
+ * pool size caps how many of these reads hold a database connection at once, leaving the rest of the
+ * Hikari pool to writes, which stay on the blocking JPA path. When the queue is full the future fails
+ * at once with {@link RejectedExecutionException}, and reads that take longer than the timeout fail
+ * with a {@link java.util.concurrent.TimeoutException}.
+ */
+@Service
+public class OrderQueryService {
+
+    private final OrderService orderService;
+    private final ReadReplicaContext readReplicaContext;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter rejectedCounter;
+
+    public OrderQueryService(OrderService orderService,
+                             ReadReplicaContext readReplicaContext,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.order-reads.threads:8}") int threads,
+                             @Value("${app.order-reads.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.order-reads.timeout:5s}") Duration timeout) {
+        this.orderService = orderService;
+        this.readReplicaContext = readReplicaContext;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "order-read-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        new ExecutorServiceMetrics(executor, "order.reads", Tags.empty()).bindTo(meterRegistry);
+        this.rejectedCounter = Counter.builder("orders.reads.rejected")
+                .description("Async order reads refused because the read queue was full")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<Optional<Order>> findById(Long id) {
+        return read(() -> orderService.findDetachedById(id));
+    }
+
+    /**
+     * Runs a read-mostly piece of a request on the read pool, with the calling request's replica routing.
+     * Entities it returns are detached, so it must load everything the caller will touch.
+     */
+    public <T> CompletableFuture<T> read(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(readReplicaContext.propagate(work), executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,23 +1,543 @@
 package com.example.backend.service;
 
+import com.example.backend.config.OrderShards;
+import com.example.backend.config.ReadReplicaContext;
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.MenuItem;
 import com.example.backend.model.Order;
+import com.example.backend.model.OrderEvent;
+import com.example.backend.model.OrderItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.TimeOrderedIdGenerator;
+import com.example.backend.model.User;
+import com.example.backend.repository.ArchivedOrderItemRepository;
+import com.example.backend.repository.ArchivedOrderRepository;
+import com.example.backend.repository.OrderEventRepository;
+import com.example.backend.repository.OrderItemRepository;
 import com.example.backend.repository.OrderRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+/**
+ * All access to orders goes through here so that each call lands on the right shard
+ * (see {@link OrderShards}). Single-order calls go to the order's shard; list calls
+ * query every shard in its own read-only transaction and merge the results.
+ * <p>
+ * The catalog (users, restaurants, drivers, menu items) is only on shard 0. When sharded, orders
+ * leave this class detached, with their catalog references resolved on shard 0, so nothing a
+ * request does later can flush them to the wrong shard; changes go back through {@link #save}.
+ */
 @Service
 public class OrderService {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "orderDate", "id");
+    private static final Comparator<Order> NEWEST_FIRST_ORDER = Comparator
+            .comparing(Order::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Order::getId, Comparator.reverseOrder());
+    private static final Comparator<OrderRepository.OrderSummary> NEWEST_FIRST_SUMMARY = Comparator
+            .comparing(OrderRepository.OrderSummary::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(OrderRepository.OrderSummary::getId, Comparator.reverseOrder());
+
     private final OrderRepository orderRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+    private final OrderArchiveService orderArchiveService;
+    private final ReadReplicaContext readReplicaContext;
+    private final OrderShards orderShards;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
 
-    public OrderService(OrderRepository orderRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderService(OrderRepository orderRepository,
+                        OrderEventRepository orderEventRepository,
+                        OrderItemRepository orderItemRepository,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        ArchivedOrderItemRepository archivedOrderItemRepository,
+                        OrderArchiveService orderArchiveService,
+                        ReadReplicaContext readReplicaContext,
+                        OrderShards orderShards,
+                        PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.archivedOrderItemRepository = archivedOrderItemRepository;
+        this.orderArchiveService = orderArchiveService;
+        this.readReplicaContext = readReplicaContext;
+        this.orderShards = orderShards;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @throws IllegalStateException if the order was read from the archive
+     */
+    public Order save(Order order) {
+        if (order.isArchived()) {
+            throw new IllegalStateException("order " + order.getId() + " is archived and read-only");
+        }
+        Order saved;
+        if (order.getId() == null) {
+            // Assign the id up front: it decides which shard the order is written to
+            order.setId(TimeOrderedIdGenerator.nextId());
+            saved = orderShards.callOnShard(orderShards.shardOf(order.getId()),
+                    () -> writeTransaction.execute(status -> {
+                        entityManager.persist(order);
+                        entityManager.flush();
+                        return detachIfSharded(order);
+                    }));
+        } else {
+            saved = orderShards.callOnShard(orderShards.shardOf(order.getId()),
+                    () -> writeTransaction.execute(status -> {
+                        Order merged = orderRepository.save(order);
+                        entityManager.flush();
+                        return detachIfSharded(merged);
+                    }));
+        }
+        if (saved.getUser() != null) {
+            readReplicaContext.markWrite(saved.getUser().getId());
+        }
+        return saved;
+    }
+
+    public List<Order> findByUserId(Long userId) {
+        return findOnAllShards(repository -> repository.findByUserId(userId, NEWEST_FIRST),
+                archive -> archive.findArchivedByUserId(userId, NEWEST_FIRST), false);
+    }
+
+    /**
+     * One page of a user's order history, newest first. {@code nextCursor} is null on the last page.
+     */
+    public record HistoryPage(List<OrderRepository.OrderSummary> orders, String nextCursor) {
+    }
+
+    /**
+     * Reads a page of summaries starting after {@code cursor} (null for the first page). Each shard
+     * returns at most {@code limit + 1} rows off the (user_id, order_date, id) index, so the cost does
+     * not grow with the length of the history. Archived orders are merged in from their own index.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by this method
+     */
+    public HistoryPage findHistory(Long userId, int limit, String cursor) {
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<OrderRepository.OrderSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = findOnAllShards(repository -> mergeSorted(List.of(
+                    repository.findSummariesByUserId(userId, page),
+                    archivedOrderRepository.findSummariesByUserId(userId, page)), NEWEST_FIRST_SUMMARY, limit + 1),
+                    NEWEST_FIRST_SUMMARY, limit + 1);
+        } else {
+            int separator;
+            LocalDateTime orderDate;
+            Long id;
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                separator = decoded.indexOf('|');
+                orderDate = LocalDateTime.parse(decoded.substring(0, separator));
+                id = Long.valueOf(decoded.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid cursor");
+            }
+            rows = findOnAllShards(repository -> mergeSorted(List.of(
+                    repository.findSummariesByUserIdBefore(userId, orderDate, id, page),
+                    archivedOrderRepository.findSummariesByUserIdBefore(userId, orderDate, id, page)),
+                    NEWEST_FIRST_SUMMARY, limit + 1), NEWEST_FIRST_SUMMARY, limit + 1);
+        }
+        rows = withRestaurantNames(rows);
+        if (rows.size() <= limit) {
+            return new HistoryPage(rows, null);
+        }
+        List<OrderRepository.OrderSummary> orders = rows.subList(0, limit);
+        OrderRepository.OrderSummary last = orders.get(limit - 1);
+        String next = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.getOrderDate() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new HistoryPage(orders, next);
+    }
+
+    /**
+     * Falls back to the archive for orders that OrderArchiveService has moved; those come back read-only.
+     */
+    public Optional<Order> findById(Long id) {
+        return findById(id, false);
+    }
+
+    /**
+     * {@link #findById(Long)} with the items loaded, for callers that read outside the request's
+     * persistence context (see {@link OrderQueryService}).
+     */
+    public Optional<Order> findDetachedById(Long id) {
+        return findById(id, true);
+    }
+
+    private Optional<Order> findById(Long id, boolean detached) {
+        Optional<Order> order = orderShards.callOnShard(orderShards.shardOf(id), () -> readTransaction.execute(status -> {
+            Optional<Order> live = orderRepository.findById(id);
+            if (live.isPresent()) {
+                loadItems(live.get(), detached);
+                return live;
+            }
+            return orderArchiveService.findArchived(id);
+        }));
+        order.ifPresent(found -> resolveCatalog(List.of(found), detached));
+        return order;
+    }
+
+    public List<Order> findAll() {
+        return findOnAllShards(repository -> repository.findAll(NEWEST_FIRST),
+                archive -> archive.findAllArchived(NEWEST_FIRST), false);
+    }
+
+    public List<Order> findByDriverId(Long driverId) {
+        return findOnAllShards(repository -> repository.findByDriverId(driverId, NEWEST_FIRST),
+                archive -> archive.findArchivedByDriverId(driverId, NEWEST_FIRST), false);
+    }
+
+    /**
+     * {@link #findByDriverId(Long)} with the items loaded; see {@link #findDetachedById(Long)}.
+     */
+    public List<Order> findDetachedByDriverId(Long driverId) {
+        return findOnAllShards(repository -> repository.findByDriverId(driverId, NEWEST_FIRST),
+                archive -> archive.findArchivedByDriverId(driverId, NEWEST_FIRST), true);
+    }
+
+    /**
+     * Whether any order, live or archived, on any shard was placed with the restaurant.
+     */
+    public boolean hasOrdersForRestaurant(Long restaurantId) {
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            boolean found = orderShards.callOnShard(shard, () -> readTransaction.execute(status ->
+                    orderRepository.existsByRestaurantId(restaurantId)
+                            || archivedOrderRepository.existsByRestaurantId(restaurantId)));
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns which of the given menu items appear in at least one order, live or archived, on any shard.
+     */
+    public Set<Long> findOrderedMenuItemIds(Collection<Long> menuItemIds) {
+        Set<Long> ordered = new HashSet<>();
+        if (menuItemIds.isEmpty()) {
+            return ordered;
+        }
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            ordered.addAll(orderShards.callOnShard(shard,
+                    () -> readTransaction.execute(status -> {
+                        List<Long> ids = new ArrayList<>(orderItemRepository.findOrderedMenuItemIds(menuItemIds));
+                        ids.addAll(archivedOrderItemRepository.findOrderedMenuItemIds(menuItemIds));
+                        return ids;
+                    })));
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns every order whose payment is PENDING, or FAILED and so still open to a later success.
+     */
+    public List<OrderRepository.UnsettledPayment> findUnsettledPayments() {
+        List<OrderRepository.UnsettledPayment> unsettled = new ArrayList<>();
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            unsettled.addAll(orderShards.callOnShard(shard,
+                    () -> readTransaction.execute(status -> orderRepository.findUnsettledPayments())));
+        }
+        return unsettled;
+    }
+
+    /**
+     * Sets the payment status of the given orders in one UPDATE per shard. PAID applies to orders
+     * whose payment is PENDING or FAILED, so a settlement that succeeds after a failed attempt wins;
+     * FAILED applies to PENDING ones only. Other orders are left alone. Returns the number of orders changed.
+     */
+    public int settlePayments(String paymentStatus, Collection<Long> orderIds) {
+        List<String> from = "PAID".equals(paymentStatus) ? List.of("PENDING", "FAILED") : List.of("PENDING");
+        int updated = 0;
+        for (Map.Entry<Integer, List<Long>> entry : groupByShard(orderIds).entrySet()) {
+            updated += orderShards.callOnShard(entry.getKey(), () -> writeTransaction.execute(status -> {
+                List<OrderRepository.OrderRef> orders = orderRepository.lockPayments(entry.getValue(), from);
+                if (orders.isEmpty()) {
+                    return 0;
+                }
+                int changed = orderRepository.updatePaymentStatus(paymentStatus, ids(orders), from);
+                writeEvents(orders, OrderEvent.PAYMENT_CHANGED, null, paymentStatus);
+                return changed;
+            }));
+        }
+        return updated;
+    }
+
+    /**
+     * Returns the orders that may still expire for non-payment (see {@link OrderRepository#EXPIRABLE}).
+     */
+    public List<OrderRepository.ExpirableOrder> findExpirableOrders() {
+        List<OrderRepository.ExpirableOrder> expirable = new ArrayList<>();
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            expirable.addAll(orderShards.callOnShard(shard,
+                    () -> readTransaction.execute(status -> orderRepository.findExpirableOrders())));
+        }
+        return expirable;
+    }
+
+    /**
+     * Orders still waiting on the kitchen (PENDING, CONFIRMED or PREPARING), from every shard.
+     */
+    public List<OrderRepository.KitchenOrder> findKitchenOrders() {
+        List<OrderRepository.KitchenOrder> orders = new ArrayList<>();
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            orders.addAll(orderShards.callOnShard(shard,
+                    () -> readTransaction.execute(status -> orderRepository.findKitchenOrders())));
+        }
+        return orders;
+    }
+
+    /**
+     * Cancels the given orders as EXPIRED in one UPDATE per shard, skipping any that were paid,
+     * confirmed or picked up in the meantime. Returns the ids of the orders changed.
+     */
+    public List<Long> expirePendingPayments(Collection<Long> orderIds) {
+        List<Long> expired = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> entry : groupByShard(orderIds).entrySet()) {
+            expired.addAll(orderShards.callOnShard(entry.getKey(), () -> writeTransaction.execute(status -> {
+                List<OrderRepository.OrderRef> orders = orderRepository.lockExpirableOrders(entry.getValue());
+                if (orders.isEmpty()) {
+                    return List.<Long>of();
+                }
+                List<Long> ids = ids(orders);
+                orderRepository.expirePendingPayments(ids);
+                writeEvents(orders, OrderEvent.EXPIRED, "CANCELLED", "EXPIRED");
+                return ids;
+            })));
+        }
+        return expired;
+    }
+
+    /**
+     * Bulk updates skip the outbox entity listener, so their events are written here, in the same transaction.
+     */
+    private void writeEvents(List<OrderRepository.OrderRef> orders, String type, String orderStatus, String paymentStatus) {
+        List<OrderEvent> events = new ArrayList<>(orders.size());
+        for (OrderRepository.OrderRef order : orders) {
+            events.add(new OrderEvent(type, order.getId(), order.getUserId(),
+                    orderStatus != null ? orderStatus : order.getStatus(), paymentStatus, order.getDriverId()));
+        }
+        orderEventRepository.saveAll(events);
+    }
+
+    private static List<Long> ids(List<OrderRepository.OrderRef> orders) {
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (OrderRepository.OrderRef order : orders) {
+            ids.add(order.getId());
+        }
+        return ids;
+    }
+
+    private Map<Integer, List<Long>> groupByShard(Collection<Long> orderIds) {
+        Map<Integer, List<Long>> idsByShard = new HashMap<>();
+        for (Long id : orderIds) {
+            idsByShard.computeIfAbsent(orderShards.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return idsByShard;
+    }
+
+    /**
+     * Runs a newest-first query on every shard, live and archived orders alike, and merges the sorted results.
+     */
+    private List<Order> findOnAllShards(Function<OrderRepository, List<Order>> query,
+                                        Function<OrderArchiveService, List<Order>> archived, boolean detached) {
+        List<List<Order>> perShard = new ArrayList<>();
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            perShard.add(orderShards.callOnShard(shard, () -> readTransaction.execute(status -> {
+                List<Order> old = archived.apply(orderArchiveService);
+                // Archived rows make resolveCatalog walk every order's items, so live ones need theirs loaded here
+                boolean loadAll = detached || !old.isEmpty();
+                List<Order> live = query.apply(orderRepository);
+                live.forEach(order -> loadItems(order, loadAll));
+                return old.isEmpty() ? live : mergeSorted(List.of(live, old), NEWEST_FIRST_ORDER, Integer.MAX_VALUE);
+            })));
+        }
+        List<Order> merged = perShard.size() == 1
+                ? perShard.get(0)
+                : mergeSorted(perShard, NEWEST_FIRST_ORDER, Integer.MAX_VALUE);
+        resolveCatalog(merged, detached);
+        return merged;
     }
 
-    public Order save(Order order) { return orderRepository.save(order); }
-    public List<Order> findByUserId(Long userId) { return orderRepository.findByUserId(userId); }
-    public Optional<Order> findById(Long id) { return orderRepository.findById(id); }
-    public List<Order> findAll() { return orderRepository.findAll(); }
-    public List<Order> findByDriverId(Long driverId) { return orderRepository.findByDriverId(driverId); }
+    /**
+     * Projection variant of {@link #findOnAllShards(Function, Function, boolean)}: keeps the first {@code limit} rows of the merge.
+     */
+    private <T> List<T> findOnAllShards(Function<OrderRepository, List<T>> query, Comparator<T> order, int limit) {
+        if (!orderShards.isSharded()) {
+            return readTransaction.execute(status -> query.apply(orderRepository));
+        }
+        List<List<T>> perShard = new ArrayList<>();
+        for (int shard = 0; shard < orderShards.shardCount(); shard++) {
+            perShard.add(orderShards.callOnShard(shard, () -> readTransaction.execute(status -> query.apply(orderRepository))));
+        }
+        return mergeSorted(perShard, order, limit);
+    }
+
+    /**
+     * Order items are lazy; once the shard scope is left a lazy load would hit shard 0,
+     * so load them while the order's shard is still bound. Detached reads have no open
+     * persistence context to load them later, so they always load them here.
+     */
+    private void loadItems(Order order, boolean detached) {
+        if (detached || orderShards.isSharded()) {
+            Hibernate.initialize(order.getItems());
+        }
+        detachIfSharded(order);
+    }
+
+    /**
+     * Takes the order (and, by cascade, its items) out of the request's persistence context once it
+     * has been read on its shard, or written and flushed there. With open-session-in-view the context outlives the shard
+     * scope, and a managed order would otherwise be flushed by the next transaction on another shard.
+     */
+    private Order detachIfSharded(Order order) {
+        if (orderShards.isSharded()) {
+            entityManager.detach(order);
+        }
+        return order;
+    }
+
+    /**
+     * Replaces the orders' user, restaurant, driver and menu item references with the entities, read
+     * on shard 0. Needed when the orders came from another shard, for detached reads (which cannot
+     * load lazily later) and for archived orders; otherwise the references load lazily as usual.
+     * References to catalog rows that no longer exist become null.
+     */
+    private void resolveCatalog(List<Order> orders, boolean detached) {
+        if (orders.isEmpty()
+                || !(detached || orderShards.isSharded() || orders.stream().anyMatch(Order::isArchived))) {
+            return;
+        }
+        orderShards.callOnShard(0, () -> readTransaction.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Map<Long, User> users = loadAll(session, User.class, orders.stream()
+                    .map(order -> order.getUser() != null ? order.getUser().getId() : null));
+            Map<Long, Restaurant> restaurants = loadAll(session, Restaurant.class, orders.stream()
+                    .map(order -> order.getRestaurant() != null ? order.getRestaurant().getId() : null));
+            Map<Long, DeliveryDriver> drivers = loadAll(session, DeliveryDriver.class, orders.stream()
+                    .map(order -> order.getDriver() != null ? order.getDriver().getId() : null));
+            Map<Long, MenuItem> menuItems = loadAll(session, MenuItem.class, orders.stream()
+                    .flatMap(order -> order.getItems() != null ? order.getItems().stream() : Stream.empty())
+                    .map(item -> item.getMenuItem() != null ? item.getMenuItem().getId() : null));
+            for (Order order : orders) {
+                order.setUser(order.getUser() != null ? users.get(order.getUser().getId()) : null);
+                order.setRestaurant(order.getRestaurant() != null ? restaurants.get(order.getRestaurant().getId()) : null);
+                order.setDriver(order.getDriver() != null ? drivers.get(order.getDriver().getId()) : null);
+                if (order.getItems() != null) {
+                    for (OrderItem item : order.getItems()) {
+                        item.setMenuItem(item.getMenuItem() != null ? menuItems.get(item.getMenuItem().getId()) : null);
+                    }
+                }
+            }
+            return null;
+        }));
+    }
+
+    private static <T> Map<Long, T> loadAll(Session session, Class<T> type, Stream<Long> ids) {
+        List<Long> distinct = ids.filter(Objects::nonNull).distinct().toList();
+        Map<Long, T> byId = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return byId;
+        }
+        // Comes back in the order of the ids, with null for missing rows; goes through the L2 cache first
+        List<T> entities = session.byMultipleIds(type).enableSessionCheck(true).multiLoad(distinct);
+        for (int i = 0; i < distinct.size(); i++) {
+            if (entities.get(i) != null) {
+                byId.put(distinct.get(i), entities.get(i));
+            }
+        }
+        return byId;
+    }
+
+    /**
+     * Summary rows from shards other than 0 cannot join the restaurant name; look it up on shard 0.
+     */
+    private List<OrderRepository.OrderSummary> withRestaurantNames(List<OrderRepository.OrderSummary> rows) {
+        if (!orderShards.isSharded() || rows.isEmpty()) {
+            return rows;
+        }
+        return orderShards.callOnShard(0, () -> readTransaction.execute(status -> {
+            Map<Long, Restaurant> restaurants = loadAll(entityManager.unwrap(Session.class), Restaurant.class,
+                    rows.stream().map(OrderRepository.OrderSummary::getRestaurantId));
+            List<OrderRepository.OrderSummary> named = new ArrayList<>(rows.size());
+            for (OrderRepository.OrderSummary row : rows) {
+                Restaurant restaurant = restaurants.get(row.getRestaurantId());
+                named.add(new NamedSummary(row, restaurant != null ? restaurant.getName() : null));
+            }
+            return named;
+        }));
+    }
+
+    private record NamedSummary(@JsonIgnore OrderRepository.OrderSummary row, String restaurantName)
+            implements OrderRepository.OrderSummary {
+        public Long getId() { return row.getId(); }
+        public LocalDateTime getOrderDate() { return row.getOrderDate(); }
+        public String getStatus() { return row.getStatus(); }
+        public String getPaymentStatus() { return row.getPaymentStatus(); }
+        public String getPaymentMethod() { return row.getPaymentMethod(); }
+        public Double getTotalAmount() { return row.getTotalAmount(); }
+        public Long getRestaurantId() { return row.getRestaurantId(); }
+        public String getRestaurantName() { return restaurantName; }
+        public Integer getItemCount() { return row.getItemCount(); }
+    }
+
+    private static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<T> order, int limit) {
+        record Cursor<T>(List<T> rows, int index) {
+            T head() { return rows.get(index); }
+        }
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>(Comparator.comparing(Cursor::head, order));
+        int total = 0;
+        for (List<T> rows : sortedLists) {
+            total += rows.size();
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor<>(rows, 0));
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.index() + 1 < cursor.rows().size()) {
+                heads.add(new Cursor<>(cursor.rows(), cursor.index() + 1));
+            }
+        }
+        return merged;
+    }
 }
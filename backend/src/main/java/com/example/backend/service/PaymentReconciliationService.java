@@ -0,0 +1,330 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Marks order payments PAID or FAILED from bank/PSP settlement files instead of manual admin updates.
+ * Files (CSV with a header row, a JSON array, or JSON lines) are picked up from app.reconciliation.inbox-dir,
+ * streamed line by line and matched on the UPI transaction reference {@code tr=ORD<orderId>} that
+ * {@link QRCodeService} puts in every payment QR. Unsettled orders are loaded once per run into a hash index
+ * (order id to amount); matches are written back in batched UPDATEs. A FAILED payment stays in the index,
+ * because the customer may pay again: a later success for the same order, in the same file or a later
+ * one, marks it PAID. Processed files move to {@code processed/}, unreadable ones to {@code failed/}.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private static final Set<String> PAID_STATUSES = Set.of("SUCCESS", "SUCCESSFUL", "PAID", "SETTLED", "COMPLETED");
+    private static final Set<String> FAILED_STATUSES = Set.of("FAILED", "FAILURE", "DECLINED", "REJECTED", "REVERSED");
+    private static final double AMOUNT_TOLERANCE = 0.005;
+
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final OrderExpiryService orderExpiryService;
+    private final KitchenLoadService kitchenLoadService;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Value("${app.reconciliation.inbox-dir:}")
+    private String inboxDir;
+
+    @Value("${app.reconciliation.batch-size:1000}")
+    private int batchSize;
+
+    public PaymentReconciliationService(OrderService orderService, ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry, OrderExpiryService orderExpiryService,
+                                        KitchenLoadService kitchenLoadService) {
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.orderExpiryService = orderExpiryService;
+        this.kitchenLoadService = kitchenLoadService;
+    }
+
+    public record ReconciliationReport(int files, long lines, long paid, long failed,
+                                       long unmatched, long amountMismatch, long malformed) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.reconciliation.poll-interval-ms:60000}")
+    public void scheduledRun() {
+        if (inboxDir == null || inboxDir.isBlank()) {
+            return;
+        }
+        try {
+            reconcileInbox();
+        } catch (IOException e) {
+            log.warn("Payment reconciliation of {} failed", inboxDir, e);
+        }
+    }
+
+    /**
+     * Processes every settlement file currently in the inbox. Runs are serialized.
+     */
+    public ReconciliationReport reconcileInbox() throws IOException {
+        if (inboxDir == null || inboxDir.isBlank()) {
+            throw new IllegalStateException("app.reconciliation.inbox-dir is not configured");
+        }
+        Path inbox = Path.of(inboxDir);
+        runLock.lock();
+        try {
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(inbox, "*.{csv,json,jsonl}")) {
+                stream.forEach(files::add);
+            }
+            if (files.isEmpty()) {
+                return new ReconciliationReport(0, 0, 0, 0, 0, 0, 0);
+            }
+            files.sort(null);
+
+            Run run = new Run(orderService.findUnsettledPayments());
+            for (Path file : files) {
+                Path target;
+                try {
+                    parse(file, run);
+                    target = inbox.resolve("processed");
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not read settlement file {}", file, e);
+                    target = inbox.resolve("failed");
+                }
+                run.flush();
+                Files.createDirectories(target);
+                Files.move(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+            ReconciliationReport report = run.report(files.size());
+            log.info("Payment reconciliation: {}", report);
+            return report;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private void parse(Path file, Run run) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (name.endsWith(".csv")) {
+                parseCsv(reader, run);
+            } else {
+                parseJson(reader, run);
+            }
+        }
+    }
+
+    private void parseCsv(BufferedReader reader, Run run) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = Csv.split(header);
+        int refColumn = -1;
+        int statusColumn = -1;
+        int amountColumn = -1;
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "tr", "reference", "transaction_reference" -> refColumn = i;
+                case "status" -> statusColumn = i;
+                case "amount" -> amountColumn = i;
+                default -> { }
+            }
+        }
+        if (refColumn < 0 || statusColumn < 0) {
+            throw new IOException("Settlement CSV needs a tr/reference and a status column");
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = Csv.split(line);
+            if (fields.size() <= Math.max(refColumn, statusColumn)) {
+                run.lines++;
+                run.malformed++;
+                continue;
+            }
+            String amount = amountColumn >= 0 && amountColumn < fields.size() ? fields.get(amountColumn) : null;
+            run.accept(fields.get(refColumn), fields.get(statusColumn), amount);
+        }
+    }
+
+    private void parseJson(BufferedReader reader, Run run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                String reference = null;
+                String status = null;
+                String amount = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName().toLowerCase(Locale.ROOT);
+                    JsonToken value = parser.nextToken();
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (field) {
+                        case "tr", "reference", "transaction_reference" -> reference = parser.getValueAsString();
+                        case "status" -> status = parser.getValueAsString();
+                        case "amount" -> amount = parser.getValueAsString();
+                        default -> { }
+                    }
+                }
+                run.accept(reference, status, amount);
+                token = parser.nextToken();
+            }
+            if (array ? token != JsonToken.END_ARRAY : token != null) {
+                throw new IOException("Unexpected JSON token " + token);
+            }
+        }
+    }
+
+    /**
+     * Extracts the order id from a reference such as "ORD42" or a full UPI string with tr=ORD42.
+     * Returns -1 if there is none.
+     */
+    static long parseOrderReference(String reference) {
+        if (reference == null) {
+            return -1;
+        }
+        int start = reference.indexOf("ORD");
+        if (start < 0) {
+            return -1;
+        }
+        long id = 0;
+        int digits = 0;
+        for (int i = start + 3; i < reference.length() && digits < 18; i++, digits++) {
+            char c = reference.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return digits == 0 ? -1 : id;
+    }
+
+    /**
+     * State of one reconciliation run: the unsettled-order index, the orders whose payment has
+     * failed so far, and the update batches.
+     */
+    private final class Run {
+        private final Map<Long, Double> unsettled = new HashMap<>();
+        private final Set<Long> failedOrders = new HashSet<>();
+        private final List<Long> paidBatch = new ArrayList<>();
+        private final Set<Long> failedBatch = new LinkedHashSet<>();
+        long lines;
+        long paid;
+        long failed;
+        long unmatched;
+        long amountMismatch;
+        long malformed;
+
+        Run(List<OrderRepository.UnsettledPayment> payments) {
+            for (OrderRepository.UnsettledPayment payment : payments) {
+                unsettled.put(payment.getId(), payment.getTotalAmount());
+                if ("FAILED".equals(payment.getPaymentStatus())) {
+                    failedOrders.add(payment.getId());
+                }
+            }
+        }
+
+        void accept(String reference, String status, String amount) {
+            lines++;
+            long orderId = parseOrderReference(reference);
+            if (orderId < 0 || status == null) {
+                malformed++;
+                return;
+            }
+            String normalized = status.trim().toUpperCase(Locale.ROOT);
+            boolean success = PAID_STATUSES.contains(normalized);
+            if (!success && !FAILED_STATUSES.contains(normalized)) {
+                malformed++;
+                return;
+            }
+            Double expected = unsettled.get(orderId);
+            if (expected == null) {
+                // Unknown order, or already paid by an earlier line or file
+                unmatched++;
+                return;
+            }
+            if (success) {
+                if (amount != null && !amount.isBlank() && !amountMatches(expected, amount)) {
+                    amountMismatch++;
+                    return;
+                }
+                unsettled.remove(orderId);
+                failedOrders.remove(orderId);
+                // A failure not yet written is simply dropped; a written one is overwritten by PAID
+                failedBatch.remove(orderId);
+                paidBatch.add(orderId);
+            } else if (failedOrders.add(orderId)) {
+                failedBatch.add(orderId);
+            } else {
+                // Already failed; nothing to change
+                unmatched++;
+                return;
+            }
+            orderExpiryService.cancel(orderId);
+            if (paidBatch.size() >= batchSize || failedBatch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private boolean amountMatches(Double expected, String amount) {
+            try {
+                return expected != null && Math.abs(Double.parseDouble(amount.trim()) - expected) < AMOUNT_TOLERANCE;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        void flush() {
+            if (!paidBatch.isEmpty()) {
+                paid += orderService.settlePayments("PAID", paidBatch);
+                paidBatch.forEach(orderId -> kitchenLoadService.onPaymentChange(orderId, "PAID"));
+                paidBatch.clear();
+            }
+            if (!failedBatch.isEmpty()) {
+                failed += orderService.settlePayments("FAILED", failedBatch);
+                failedBatch.clear();
+            }
+        }
+
+        ReconciliationReport report(int files) {
+            meterRegistry.counter("payments.reconciliation.lines", "outcome", "paid").increment(paid);
+            meterRegistry.counter("payments.reconciliation.lines", "outcome", "failed").increment(failed);
+            meterRegistry.counter("payments.reconciliation.lines", "outcome", "unmatched").increment(unmatched);
+            meterRegistry.counter("payments.reconciliation.lines", "outcome", "amount_mismatch").increment(amountMismatch);
+            meterRegistry.counter("payments.reconciliation.lines", "outcome", "malformed").increment(malformed);
+            return new ReconciliationReport(files, lines, paid, failed, unmatched, amountMismatch, malformed);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Promotion;
+import com.example.backend.repository.PromotionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prices carts in integer paise, so totals never drift the way summed doubles do. Active promotions
+ * are compiled into an immutable {@link RuleSet} (indexed by menu item, restaurant and code) that is
+ * swapped in atomically whenever promotions change, and on a timer so other nodes pick up changes.
+ * A quote is one pass over the cart lines plus a scan of the promotions that can apply to that
+ * restaurant:
+ * <ol>
+ *   <li>item subtotal, less BOGO discounts per line</li>
+ *   <li>the single best order-level promotion (automatic, or the entered code)</li>
+ *   <li>delivery fee from the tier matching the discounted subtotal</li>
+ *   <li>GST on food and on the delivery fee, each rounded half up</li>
+ * </ol>
+ */
+@Service
+public class PricingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingService.class);
+    private static final int TYPE_PERCENT = 0;
+    private static final int TYPE_FLAT = 1;
+    private static final int TYPE_BOGO = 2;
+    private static final Rule[] NO_RULES = new Rule[0];
+    private static final int MAX_QUANTITY = 999;
+
+    private final PromotionRepository promotionRepository;
+    private final TransactionTemplate readTransaction;
+    private final long[] feeThresholds;
+    private final long[] fees;
+    private final int foodGstBps;
+    private final int deliveryGstBps;
+    private volatile RuleSet rules = new RuleSet(Map.of(), Map.of(), NO_RULES, Map.of());
+
+    /**
+     * A cart as parallel primitive arrays, so building and pricing it allocates almost nothing.
+     */
+    public static final class Cart {
+        private long[] itemIds = new long[8];
+        private long[] unitPrices = new long[8];
+        private int[] quantities = new int[8];
+        private int size;
+
+        /**
+         * @throws IllegalArgumentException if the quantity is not between 1 and 999
+         */
+        public Cart add(long menuItemId, long unitPricePaise, int quantity) {
+            if (quantity <= 0 || quantity > MAX_QUANTITY) {
+                throw new IllegalArgumentException("quantity must be between 1 and " + MAX_QUANTITY);
+            }
+            if (size == itemIds.length) {
+                itemIds = Arrays.copyOf(itemIds, size * 2);
+                unitPrices = Arrays.copyOf(unitPrices, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            itemIds[size] = menuItemId;
+            unitPrices[size] = unitPricePaise;
+            quantities[size] = quantity;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A priced cart; all amounts in paise. totalAmount is the total in rupees, as stored on orders.
+     */
+    public record Quote(long subtotalPaise, long itemDiscountPaise, long orderDiscountPaise, Long promotionId,
+                        String promoCode, long deliveryFeePaise, long taxPaise, long totalPaise, double totalAmount) {
+    }
+
+    private static final class Rule {
+        final long id;
+        final String code;
+        final int type;
+        final long restaurantId;
+        final int percentBps;
+        final long amountPaise;
+        final long minSubtotal;
+        final long maxDiscount;
+        final long validFrom;
+        final long validUntil;
+
+        Rule(Promotion promotion, int type) {
+            this.id = promotion.getId();
+            this.code = promotion.getCode();
+            this.type = type;
+            this.restaurantId = promotion.getRestaurantId() != null ? promotion.getRestaurantId() : 0;
+            this.percentBps = promotion.getPercentBps() != null ? promotion.getPercentBps() : 0;
+            this.amountPaise = promotion.getAmountPaise() != null ? promotion.getAmountPaise() : 0;
+            this.minSubtotal = promotion.getMinSubtotalPaise() != null ? promotion.getMinSubtotalPaise() : 0;
+            this.maxDiscount = promotion.getMaxDiscountPaise() != null ? promotion.getMaxDiscountPaise() : Long.MAX_VALUE;
+            this.validFrom = promotion.getValidFrom() != null ? epochMillis(promotion.getValidFrom()) : Long.MIN_VALUE;
+            this.validUntil = promotion.getValidUntil() != null ? epochMillis(promotion.getValidUntil()) : Long.MAX_VALUE;
+        }
+
+        boolean appliesTo(long restaurant, long now) {
+            return (restaurantId == 0 || restaurantId == restaurant) && now >= validFrom && now < validUntil;
+        }
+
+        long orderDiscount(long net) {
+            if (net < minSubtotal) {
+                return 0;
+            }
+            long discount = type == TYPE_PERCENT ? Math.min(maxDiscount, basisPoints(net, percentBps)) : amountPaise;
+            return Math.min(discount, net);
+        }
+    }
+
+    private record RuleSet(Map<Long, Rule[]> bogoByItem, Map<Long, Rule[]> byRestaurant, Rule[] global,
+                           Map<String, Rule> byCode) {
+    }
+
+    public PricingService(PromotionRepository promotionRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.pricing.delivery-fee-tiers:0:4900,20000:2900,50000:0}") List<String> deliveryFeeTiers,
+                          @Value("${app.pricing.food-gst-bps:500}") int foodGstBps,
+                          @Value("${app.pricing.delivery-gst-bps:1800}") int deliveryGstBps) {
+        this.promotionRepository = promotionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.foodGstBps = foodGstBps;
+        this.deliveryGstBps = deliveryGstBps;
+        List<long[]> tiers = new ArrayList<>();
+        for (String tier : deliveryFeeTiers) {
+            String[] parts = tier.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Delivery fee tier must be <min subtotal paise>:<fee paise>: " + tier);
+            }
+            tiers.add(new long[]{Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim())});
+        }
+        tiers.sort((a, b) -> Long.compare(a[0], b[0]));
+        this.feeThresholds = new long[tiers.size()];
+        this.fees = new long[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            feeThresholds[i] = tiers.get(i)[0];
+            fees[i] = tiers.get(i)[1];
+        }
+    }
+
+    /**
+     * Recompiles the rule set from the active promotions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.pricing.reload-interval:1m}", initialDelayString = "${app.pricing.reload-interval:1m}")
+    public void reload() {
+        List<Promotion> promotions = readTransaction.execute(status -> promotionRepository.findByActiveTrue());
+        long now = System.currentTimeMillis();
+        Map<Long, List<Rule>> bogo = new HashMap<>();
+        Map<Long, List<Rule>> byRestaurant = new HashMap<>();
+        List<Rule> global = new ArrayList<>();
+        Map<String, Rule> byCode = new HashMap<>();
+        for (Promotion promotion : promotions) {
+            int type = typeOf(promotion.getType());
+            Rule rule = new Rule(promotion, type);
+            if (type < 0 || rule.validUntil <= now) {
+                continue;
+            }
+            if (type == TYPE_BOGO) {
+                if (promotion.getMenuItemId() != null) {
+                    bogo.computeIfAbsent(promotion.getMenuItemId(), id -> new ArrayList<>()).add(rule);
+                }
+            } else if (rule.code != null && !rule.code.isBlank()) {
+                byCode.put(rule.code.toUpperCase(Locale.ROOT), rule);
+            } else if (rule.restaurantId != 0) {
+                byRestaurant.computeIfAbsent(rule.restaurantId, id -> new ArrayList<>()).add(rule);
+            } else {
+                global.add(rule);
+            }
+        }
+        rules = new RuleSet(toArrays(bogo), toArrays(byRestaurant), global.toArray(NO_RULES), Map.copyOf(byCode));
+        log.debug("Compiled {} active promotions", promotions.size());
+    }
+
+    public List<Promotion> findAllPromotions() {
+        return promotionRepository.findAllByOrderByIdDesc();
+    }
+
+    /**
+     * Validates and stores a promotion, then recompiles the rules so it applies immediately.
+     *
+     * @throws IllegalArgumentException if the promotion is incomplete or inconsistent
+     */
+    public Promotion savePromotion(Promotion promotion) {
+        int type = typeOf(promotion.getType());
+        if (type < 0) {
+            throw new IllegalArgumentException("type must be PERCENT, FLAT or BOGO");
+        }
+        promotion.setType(promotion.getType().toUpperCase(Locale.ROOT));
+        if (type == TYPE_PERCENT && (promotion.getPercentBps() == null
+                || promotion.getPercentBps() <= 0 || promotion.getPercentBps() > 10_000)) {
+            throw new IllegalArgumentException("percentBps must be between 1 and 10000");
+        }
+        if (type == TYPE_FLAT && (promotion.getAmountPaise() == null || promotion.getAmountPaise() <= 0)) {
+            throw new IllegalArgumentException("amountPaise must be positive");
+        }
+        if (type == TYPE_BOGO && promotion.getMenuItemId() == null) {
+            throw new IllegalArgumentException("menuItemId is required for BOGO");
+        }
+        if (promotion.getCode() != null) {
+            promotion.setCode(promotion.getCode().isBlank() ? null : promotion.getCode().trim().toUpperCase(Locale.ROOT));
+        }
+        Promotion saved = promotionRepository.save(promotion);
+        reload();
+        return saved;
+    }
+
+    public boolean deactivatePromotion(Long id) {
+        return promotionRepository.findById(id)
+                .map(promotion -> {
+                    promotion.setActive(false);
+                    promotionRepository.save(promotion);
+                    reload();
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Prices a cart for a restaurant, optionally with a promo code.
+     *
+     * @throws IllegalArgumentException if the promo code is unknown, expired or not valid for this cart,
+     *                                  or the cart total does not fit in a long
+     */
+    public Quote quote(long restaurantId, Cart cart, String promoCode) {
+        try {
+            return price(restaurantId, cart, promoCode);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("cart total is too large");
+        }
+    }
+
+    private Quote price(long restaurantId, Cart cart, String promoCode) {
+        RuleSet ruleSet = rules;
+        long now = System.currentTimeMillis();
+
+        long subtotal = 0;
+        long itemDiscount = 0;
+        for (int i = 0; i < cart.size; i++) {
+            long lineTotal = Math.multiplyExact(cart.unitPrices[i], cart.quantities[i]);
+            subtotal = Math.addExact(subtotal, lineTotal);
+            Rule[] bogo = ruleSet.bogoByItem.isEmpty() ? NO_RULES : ruleSet.bogoByItem.getOrDefault(cart.itemIds[i], NO_RULES);
+            for (Rule rule : bogo) {
+                if (rule.appliesTo(restaurantId, now)) {
+                    itemDiscount += (cart.quantities[i] / 2) * cart.unitPrices[i];
+                    break;
+                }
+            }
+        }
+        long net = subtotal - itemDiscount;
+
+        Rule best = null;
+        long orderDiscount = 0;
+        if (promoCode != null && !promoCode.isBlank()) {
+            Rule rule = ruleSet.byCode.get(promoCode.trim().toUpperCase(Locale.ROOT));
+            if (rule == null || !rule.appliesTo(restaurantId, now)) {
+                throw new IllegalArgumentException("unknown or expired promo code");
+            }
+            orderDiscount = rule.orderDiscount(net);
+            if (orderDiscount == 0) {
+                throw new IllegalArgumentException("promo code needs a subtotal of at least " + rupees(rule.minSubtotal));
+            }
+            best = rule;
+        }
+        Rule[] restaurantRules = ruleSet.byRestaurant.getOrDefault(restaurantId, NO_RULES);
+        for (int pass = 0; pass < 2; pass++) {
+            for (Rule rule : pass == 0 ? restaurantRules : ruleSet.global) {
+                if (rule.appliesTo(restaurantId, now)) {
+                    long discount = rule.orderDiscount(net);
+                    if (discount > orderDiscount) {
+                        orderDiscount = discount;
+                        best = rule;
+                    }
+                }
+            }
+        }
+
+        long taxable = net - orderDiscount;
+        long deliveryFee = cart.size == 0 ? 0 : deliveryFee(taxable);
+        long tax = basisPoints(taxable, foodGstBps) + basisPoints(deliveryFee, deliveryGstBps);
+        long total = taxable + deliveryFee + tax;
+        return new Quote(subtotal, itemDiscount, orderDiscount, best != null ? best.id : null,
+                best != null ? best.code : null, deliveryFee, tax, total, total / 100.0);
+    }
+
+    private long deliveryFee(long subtotal) {
+        long fee = 0;
+        for (int i = 0; i < feeThresholds.length && subtotal >= feeThresholds[i]; i++) {
+            fee = fees[i];
+        }
+        return fee;
+    }
+
+    /**
+     * Converts a rupee price (as stored on menu items) to paise.
+     */
+    public static long toPaise(Double rupees) {
+        return rupees == null ? 0 : Math.round(rupees * 100);
+    }
+
+    private static String rupees(long paise) {
+        return String.format(Locale.ROOT, "%d.%02d", paise / 100, paise % 100);
+    }
+
+    private static long basisPoints(long amount, int bps) {
+        return (amount * bps + 5_000) / 10_000;
+    }
+
+    private static int typeOf(String type) {
+        if (type == null) {
+            return -1;
+        }
+        return switch (type.toUpperCase(Locale.ROOT)) {
+            case Promotion.PERCENT -> TYPE_PERCENT;
+            case Promotion.FLAT -> TYPE_FLAT;
+            case Promotion.BOGO -> TYPE_BOGO;
+            default -> -1;
+        };
+    }
+
+    private static Map<Long, Rule[]> toArrays(Map<Long, List<Rule>> rules) {
+        Map<Long, Rule[]> arrays = new HashMap<>();
+        rules.forEach((key, list) -> arrays.put(key, list.toArray(NO_RULES)));
+        return Map.copyOf(arrays);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -7,6 +7,10 @@ import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +25,8 @@ import java.util.Map;
 @Service
 public class QRCodeService {
 
+    private static final Logger log = LoggerFactory.getLogger(QRCodeService.class);
+
     @Value("${upi.id:8125358163@ybl}")
     private String upiId;
 
@@ -36,6 +42,17 @@ public class QRCodeService {
     @Value("${upi.transaction.note.prefix:Order Payment -}")
     private String transactionNotePrefix;
 
+    private final MeterRegistry meterRegistry;
+    private final Timer renderTimer;
+
+    public QRCodeService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.renderTimer = Timer.builder("qr.render")
+                .description("Time to render a payment QR code to a PNG data URI")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     /**
      * Generates a UPI payment QR code
      * @param orderId The order ID
@@ -43,7 +60,7 @@ public class QRCodeService {
      * @return Base64 encoded QR code image
      */
     public String generatePaymentQRCode(Long orderId, Double amount) throws WriterException, IOException {
-        System.out.println("Generating QR code for order: " + orderId + ", amount: " + amount);
+        log.debug("Generating QR code for order {} amount {}", orderId, amount);
         
         if (orderId == null || amount == null || amount <= 0) {
             throw new IllegalArgumentException("Invalid order ID or amount");
@@ -51,9 +68,14 @@ public class QRCodeService {
         
         // Generate UPI payment link following UPI deep linking standard
         String upiPaymentString = generateUPIPaymentString(orderId, amount);
-        System.out.println("UPI String: " + upiPaymentString);
-        
-        return generateQRCodeImage(upiPaymentString, 300, 300);
+        log.debug("UPI string for order {}: {}", orderId, upiPaymentString);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return generateQRCodeImage(upiPaymentString, 300, 300);
+        } finally {
+            sample.stop(renderTimer);
+        }
     }
 
     /**
@@ -2,23 +2,64 @@ package com.example.backend.service;
 
 import com.example.backend.model.Restaurant;
 import com.example.backend.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 @Service
 public class RestaurantService {
+    private static final String ALL = "all";
+
     private final RestaurantRepository restaurantRepository;
+    private final MenuItemService menuItemService;
+    private final SingleFlightCache<String, List<Restaurant>> catalog;
 
-    public RestaurantService(RestaurantRepository restaurantRepository) {
+    public RestaurantService(RestaurantRepository restaurantRepository,
+                             MenuItemService menuItemService,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.catalog.fresh-for:10s}") Duration freshFor,
+                             @Value("${app.catalog.stale-for:1m}") Duration staleFor) {
         this.restaurantRepository = restaurantRepository;
+        this.menuItemService = menuItemService;
+        TransactionTemplate loadTransaction = new TransactionTemplate(transactionManager);
+        loadTransaction.setReadOnly(true);
+        loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.catalog = new SingleFlightCache<>("restaurants",
+                key -> loadTransaction.execute(status -> List.copyOf(restaurantRepository.findAll())),
+                refreshExecutor, freshFor, staleFor, meterRegistry);
     }
 
-    public List<Restaurant> findAll() { return restaurantRepository.findAll(); }
+    /**
+     * The restaurant listing, loaded once for all concurrent callers. The list and its restaurants are shared
+     * and must not be modified; callers that add per-request data build their own views.
+     */
+    public List<Restaurant> findAll() { return catalog.get(ALL); }
+
+    @Transactional(readOnly = true)
     public Optional<Restaurant> findById(Long id) { return restaurantRepository.findById(id); }
 
-    public Restaurant save(Restaurant restaurant) { return restaurantRepository.save(restaurant); }
+    public Restaurant save(Restaurant restaurant) {
+        Restaurant saved = restaurantRepository.save(restaurant);
+        catalog.invalidateAll();
+        return saved;
+    }
 
-    public void delete(Long id) { restaurantRepository.deleteById(id); }
+    public void delete(Long id) {
+        restaurantRepository.deleteById(id);
+        catalog.invalidateAll();
+        // The restaurant's menu items are deleted with it
+        menuItemService.invalidateMenus();
+    }
 }
@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache that collapses concurrent misses: the first caller for a key runs the load and
+ * everyone who arrives while it is in flight waits for the same future instead of querying too.
+ * A value is fresh for {@code freshFor}; for {@code staleFor} after that it is still returned at once
+ * while one background refresh per key replaces it. Only values older than both are loaded again in
+ * the foreground. A failed load is not cached: its waiters get the exception and the next caller retries.
+ * Neither is a {@code null} from the loader, which callers use for keys that have nothing to cache.
+ * <p>
+ * Expired entries are dropped by a sweep that runs on a miss at most once per fresh-plus-stale window,
+ * so keys that are never asked for again do not stay on the heap.
+ * <p>
+ * Values are shared between callers and must not be modified.
+ */
+final class SingleFlightCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<Entry<V>>> entries = new ConcurrentHashMap<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    private final Function<K, V> loader;
+    private final Executor refreshExecutor;
+    private final long freshNanos;
+    private final long staleNanos;
+    private final AtomicLong nextSweepAt = new AtomicLong(System.nanoTime());
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter coalescedCounter;
+    private final Counter loadCounter;
+    private final Counter refreshCounter;
+
+    SingleFlightCache(String name, Function<K, V> loader, Executor refreshExecutor,
+                      Duration freshFor, Duration staleFor, MeterRegistry meterRegistry) {
+        this.loader = loader;
+        this.refreshExecutor = refreshExecutor;
+        this.freshNanos = freshFor.toNanos();
+        this.staleNanos = staleFor.toNanos();
+        this.hitCounter = counter(meterRegistry, name, "hit");
+        this.staleCounter = counter(meterRegistry, name, "stale");
+        this.coalescedCounter = counter(meterRegistry, name, "coalesced");
+        this.loadCounter = counter(meterRegistry, name, "load");
+        this.refreshCounter = counter(meterRegistry, name, "refresh");
+    }
+
+    V get(K key) {
+        while (true) {
+            CompletableFuture<Entry<V>> current = entries.get(key);
+            if (current == null) {
+                sweepExpired();
+                CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+                if (entries.putIfAbsent(key, mine) == null) {
+                    return load(key, mine).value();
+                }
+                continue;
+            }
+            if (!current.isDone()) {
+                coalescedCounter.increment();
+                return join(current).value();
+            }
+            if (current.isCompletedExceptionally()) {
+                // The loader removes failed futures; this one is on its way out
+                entries.remove(key, current);
+                continue;
+            }
+            Entry<V> entry = current.join();
+            long age = System.nanoTime() - entry.loadedAt();
+            if (age < freshNanos) {
+                hitCounter.increment();
+                return entry.value();
+            }
+            if (age < freshNanos + staleNanos) {
+                staleCounter.increment();
+                refresh(key, current);
+                return entry.value();
+            }
+            CompletableFuture<Entry<V>> mine = new CompletableFuture<>();
+            if (entries.replace(key, current, mine)) {
+                return load(key, mine).value();
+            }
+        }
+    }
+
+    void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Entry<V> load(K key, CompletableFuture<Entry<V>> future) {
+        loadCounter.increment();
+        try {
+            Entry<V> entry = new Entry<>(loader.apply(key), System.nanoTime());
+            future.complete(entry);
+            if (entry.value() == null) {
+                entries.remove(key, future);
+            }
+            return entry;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reloads in the background and swaps the result in, unless the entry was invalidated or replaced meanwhile.
+     */
+    private void refresh(K key, CompletableFuture<Entry<V>> current) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshCounter.increment();
+                    Entry<V> entry = new Entry<>(loader.apply(key), System.nanoTime());
+                    if (entry.value() == null) {
+                        entries.remove(key, current);
+                    } else {
+                        entries.replace(key, current, CompletableFuture.completedFuture(entry));
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of {} failed; serving the stale value until it expires", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void sweepExpired() {
+        long now = System.nanoTime();
+        long next = nextSweepAt.get();
+        if (now - next < 0 || !nextSweepAt.compareAndSet(next, now + freshNanos + staleNanos)) {
+            return;
+        }
+        entries.forEach((key, future) -> {
+            if (future.isDone() && !future.isCompletedExceptionally()
+                    && now - future.join().loadedAt() >= freshNanos + staleNanos) {
+                entries.remove(key, future);
+            }
+        });
+    }
+
+    private static <V> Entry<V> join(CompletableFuture<Entry<V>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("catalog.cache.requests")
+                .description("Catalog lookups by outcome: fresh hit, stale hit with a background refresh, "
+                        + "wait for an in-flight load, or own load; refresh counts background reloads")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
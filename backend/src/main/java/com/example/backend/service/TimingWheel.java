@@ -0,0 +1,154 @@
+package com.example.backend.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by id. Each level has 64 slots; a slot on level L spans 64^L ticks,
+ * so four levels cover 64^4 ticks (about 194 days at one-second ticks). Deadlines further out are
+ * parked in the top level and re-filed as time advances. Adding and cancelling are O(1): entries
+ * live in intrusive doubly-linked slot lists and are found through an id index. Advancing costs
+ * one slot visit per tick plus the entries that cascade or expire.
+ * <p>
+ * Not thread-safe; callers serialize access.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private static final class Entry {
+        final long id;
+        long deadline;
+        Entry prev;
+        Entry next;
+        int level;
+        int slot;
+
+        Entry(long id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+
+    private final Entry[][] slots = new Entry[LEVELS][SLOTS];
+    private final Map<Long, Entry> byId = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    /**
+     * Schedules (or reschedules) an id. A deadline at or before the current tick is reported by the next advance.
+     */
+    void schedule(long id, long deadlineTick) {
+        Entry entry = byId.get(id);
+        if (entry != null) {
+            unlink(entry);
+            entry.deadline = deadlineTick;
+        } else {
+            entry = new Entry(id, deadlineTick);
+            byId.put(id, entry);
+        }
+        file(entry);
+    }
+
+    boolean cancel(long id) {
+        Entry entry = byId.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given tick and adds every id whose deadline has passed to {@code expired}.
+     */
+    void advanceTo(long tick, List<Long> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Re-file coarser slots that start at this tick before looking at level 0
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK), expired);
+                }
+            }
+            int slot = (int) (currentTick & SLOT_MASK);
+            Entry entry = slots[0][slot];
+            slots[0][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.prev = entry.next = null;
+                if (entry.deadline <= currentTick) {
+                    byId.remove(entry.id);
+                    expired.add(entry.id);
+                } else {
+                    file(entry);
+                }
+                entry = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot, List<Long> expired) {
+        Entry entry = slots[level][slot];
+        slots[level][slot] = null;
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = entry.next = null;
+            if (entry.deadline <= currentTick) {
+                byId.remove(entry.id);
+                expired.add(entry.id);
+            } else {
+                file(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void file(Entry entry) {
+        // Overdue entries go into the slot visited on the next tick
+        long deadline = Math.max(entry.deadline, currentTick + 1);
+        long delta = Math.min(deadline - currentTick, SPAN - 1);
+        long target = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((target >>> (SLOT_BITS * level)) & SLOT_MASK);
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = slots[level][slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (slots[entry.level][entry.slot] == entry) {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+}
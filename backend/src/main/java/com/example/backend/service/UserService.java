@@ -3,6 +3,8 @@ package com.example.backend.service;
 import com.example.backend.model.Role;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -13,9 +15,19 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.encodeTimer = Timer.builder("auth.password.encode")
+                .description("BCrypt password hashing time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.matches")
+                .description("BCrypt password verification time")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public Optional<User> findByEmail(String email) {
@@ -28,11 +40,19 @@ public class UserService {
 
     public User createUser(User user) {
         if (user.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            String rawPassword = user.getPassword();
+            user.setPassword(encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
         }
         return userRepository.save(user);
     }
 
+    public boolean passwordMatches(User user, String rawPassword) {
+        if (rawPassword == null || user.getPassword() == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(matchTimer.record(() -> passwordEncoder.matches(rawPassword, user.getPassword())));
+    }
+
     public boolean isAdmin(Long userId) {
         return hasRole(userId, Role.ROLE_ADMIN);
     }
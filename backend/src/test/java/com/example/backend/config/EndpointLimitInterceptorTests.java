@@ -0,0 +1,142 @@
+package com.example.backend.config;
+
+import com.example.backend.model.User;
+import com.example.backend.service.UserService;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the login and order-placement limits (burst 5 per account and 20 per address for login, 10 for
+ * orders, in application.properties). Each test
+ * uses its own client address, so buckets left over from other tests in the shared context don't count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class EndpointLimitInterceptorTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void loginIsLimitedPerClientAddressAndEmail() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login("10.0.0.1", "victim@example.com", "wrong")).andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.0.1", "Victim@Example.com ", "wrong")).andExpect(status().isTooManyRequests());
+
+        // Same NAT address, another account: its own bucket, and the body still reaches the controller
+        mockMvc.perform(login("10.0.0.1", "user@example.com", "password")).andExpect(status().isOk());
+        mockMvc.perform(login("10.0.0.2", "victim@example.com", "wrong")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void oneAddressCyclingThroughEmailsHitsThePerAddressLimit() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(login("10.0.2.1", "stuffed" + i + "@example.com", "wrong"))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.2.1", "stuffed20@example.com", "wrong")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(login("10.0.2.2", "stuffed20@example.com", "wrong")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void aBufferedBodyCanBeReadWithAReadListener() throws Exception {
+        RequestBodyCachingFilter filter = new RequestBodyCachingFilter(List.of(new RateLimitProperties.Rule(
+                "login", "POST", "/api/auth/login", 1, 5, null, "email", 0, 1)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContent("{\"email\":\"a@b.c\"}".getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream body = chain.getRequest().getInputStream();
+        List<String> events = new ArrayList<>();
+        body.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+        assertThat(events).containsExactly("{\"email\":\"a@b.c\"}", "done");
+    }
+
+    @Test
+    void orderPlacementIgnoresTheUserIdParameter() throws Exception {
+        Long userId = userService.findByEmail("user@example.com").map(User::getId).orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            int status = mockMvc.perform(order("10.0.1.1", userId + i)).andReturn().getResponse().getStatus();
+            assertThat(status).isNotEqualTo(429);
+        }
+        mockMvc.perform(order("10.0.1.1", userId + 10)).andExpect(status().isTooManyRequests());
+        assertThat(mockMvc.perform(order("10.0.1.2", userId)).andReturn().getResponse().getStatus()).isNotEqualTo(429);
+    }
+
+    @Test
+    void readsTopLevelScalarFieldsOnly() {
+        assertThat(field("{\"email\":\"a@b.c\",\"password\":\"x\"}")).isEqualTo("a@b.c");
+        assertThat(field("{\"meta\":{\"email\":\"nested@b.c\"},\"email\":\"top@b.c\"}")).isEqualTo("top@b.c");
+        assertThat(field("{\"email\":{\"value\":\"a@b.c\"}}")).isNull();
+        assertThat(field("{\"email\":null}")).isNull();
+        assertThat(field("[{\"email\":\"a@b.c\"}]")).isNull();
+        assertThat(field("{\"email\":")).isNull();
+    }
+
+    private static MockHttpServletRequestBuilder login(String address, String email, String password) {
+        return post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"%s\", \"password\": \"%s\"}".formatted(email, password));
+    }
+
+    private static MockHttpServletRequestBuilder order(String address, Long userId) {
+        // No such restaurant, so the controller rejects it; only the limiter's verdict matters here
+        return post("/api/orders")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .param("userId", userId.toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\": %d, \"restaurantId\": -1, \"items\": []}".formatted(userId));
+    }
+
+    private static String field(String json) {
+        return EndpointLimitInterceptor.bodyField(json.getBytes(StandardCharsets.UTF_8), "email");
+    }
+}
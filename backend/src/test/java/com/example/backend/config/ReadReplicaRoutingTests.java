@@ -0,0 +1,96 @@
+package com.example.backend.config;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.User;
+import com.example.backend.service.MenuItemService;
+import com.example.backend.service.RestaurantService;
+import com.example.backend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the primary and the replica on two separate H2 databases. The replica is a snapshot of the
+ * primary taken after seeding, i.e. a replica that has not caught up with anything written since.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-test-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica-test-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.max-lag=500ms"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:replica-test-primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-test-replica";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void getReadsGoToTheReplicaExceptRightAfterTheUsersOwnWrite() throws Exception {
+        copyPrimaryToReplica();
+        User user = userService.findByEmail("user@example.com").orElseThrow();
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"userId": %d, "restaurantId": %d, "paymentMethod": "COD",
+                                 "items": [{"menuItemId": %d, "quantity": 1}]}
+                                """.formatted(user.getId(), restaurant.getId(), item.getId())))
+                .andExpect(status().isOk());
+
+        // Within max-lag of the write the user reads the primary and sees the new order
+        mockMvc.perform(get("/api/orders/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // Afterwards the same GET is served by the replica, which does not have the order
+        Thread.sleep(700);
+        mockMvc.perform(get("/api/orders/user/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private void copyPrimaryToReplica() throws Exception {
+        String script = tempDir.resolve("primary.sql").toString().replace("'", "''");
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement()) {
+            statement.execute("SCRIPT TO '" + script + "'");
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+        }
+    }
+}
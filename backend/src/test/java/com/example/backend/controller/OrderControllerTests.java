@@ -0,0 +1,80 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.service.MenuItemService;
+import com.example.backend.service.RestaurantService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Malformed carts get 400 from the quote and order endpoints, never a 500.
+ */
+@SpringBootTest(properties = "app.rate-limit.enabled=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class OrderControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @Test
+    void malformedQuotesAreRejected() throws Exception {
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+        String[] bodies = {
+                "{}",
+                "{\"items\": []}",
+                "{\"restaurantId\": %d}".formatted(restaurant.getId()),
+                "{\"restaurantId\": \"abc\", \"items\": []}",
+                "{\"restaurantId\": %d, \"items\": \"pizza\"}".formatted(restaurant.getId()),
+                "{\"restaurantId\": %d, \"items\": [7]}".formatted(restaurant.getId()),
+                "{\"restaurantId\": %d, \"items\": [{\"quantity\": 1}]}".formatted(restaurant.getId()),
+                "{\"restaurantId\": %d, \"items\": [{\"menuItemId\": %d}]}".formatted(restaurant.getId(), item.getId()),
+                "{\"restaurantId\": %d, \"items\": [{\"menuItemId\": %d, \"quantity\": 0}]}".formatted(restaurant.getId(), item.getId()),
+                "{\"restaurantId\": %d, \"items\": [{\"menuItemId\": %d, \"quantity\": -3}]}".formatted(restaurant.getId(), item.getId()),
+                "{\"restaurantId\": %d, \"items\": [{\"menuItemId\": %d, \"quantity\": 99999999999}]}".formatted(restaurant.getId(), item.getId())
+        };
+        for (String body : bodies) {
+            mockMvc.perform(post("/api/orders/quote").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").exists());
+        }
+    }
+
+    @Test
+    void ordersWithMissingFieldsOrBadQuantitiesAreRejected() throws Exception {
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"userId\": 1, \"restaurantId\": %d, \"items\": [{\"menuItemId\": %d, \"quantity\": -1}]}"
+                                .formatted(restaurant.getId(), item.getId())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void aValidCartIsQuoted() throws Exception {
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+        mockMvc.perform(post("/api/orders/quote").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"restaurantId\": %d, \"items\": [{\"menuItemId\": %d, \"quantity\": 2}]}"
+                                .formatted(restaurant.getId(), item.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalPaise").isNumber());
+    }
+}
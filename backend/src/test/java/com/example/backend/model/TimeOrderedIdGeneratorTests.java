@@ -0,0 +1,121 @@
+package com.example.backend.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The generator is static and shared with any Spring context in the same JVM, so the fake clocks
+ * here start just after the last issued id and only move a few milliseconds ahead of the real time.
+ */
+class TimeOrderedIdGeneratorTests {
+
+    private static final long SEQUENCE_MASK = (1L << TimeOrderedIdGenerator.SEQUENCE_BITS) - 1;
+    private static final int IDS_PER_MILLI = 1 << TimeOrderedIdGenerator.SEQUENCE_BITS;
+
+    @AfterEach
+    void restoreClock() {
+        TimeOrderedIdGenerator.useClock(System::currentTimeMillis);
+        TimeOrderedIdGenerator.configure(0, 1000);
+    }
+
+    @Test
+    void idsAreUniqueAndIncreasingPerThread() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = TimeOrderedIdGenerator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] ids = result.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullMillisecondBorrowsTheNextOne() {
+        long start = unusedMillis();
+        TimeOrderedIdGenerator.useClock(() -> start);
+
+        for (int i = 0; i < IDS_PER_MILLI; i++) {
+            long id = TimeOrderedIdGenerator.nextId();
+            assertThat(millisOf(id)).isEqualTo(start);
+            assertThat(id & SEQUENCE_MASK).isEqualTo(i);
+        }
+        long borrowed = TimeOrderedIdGenerator.nextId();
+        assertThat(millisOf(borrowed)).isEqualTo(start + 1);
+        assertThat(borrowed & SEQUENCE_MASK).isZero();
+    }
+
+    @Test
+    void clockSteppingBackDoesNotRepeatIds() {
+        AtomicLong now = new AtomicLong(unusedMillis());
+        TimeOrderedIdGenerator.useClock(now::get);
+        long before = TimeOrderedIdGenerator.nextId();
+
+        now.addAndGet(-500);
+        long after = TimeOrderedIdGenerator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(millisOf(after)).isEqualTo(millisOf(before));
+    }
+
+    @Test
+    void waitsForTheClockOnceMoreThanMaxSkewAhead() throws Exception {
+        AtomicLong now = new AtomicLong(unusedMillis());
+        TimeOrderedIdGenerator.useClock(now::get);
+        TimeOrderedIdGenerator.configure(0, 2);
+        // Use up the current millisecond and the two the skew allows borrowing
+        for (int i = 0; i < 3 * IDS_PER_MILLI; i++) {
+            TimeOrderedIdGenerator.nextId();
+        }
+
+        CompletableFuture<Long> next = CompletableFuture.supplyAsync(TimeOrderedIdGenerator::nextId);
+        Thread.sleep(100);
+        assertThat(next).isNotDone();
+
+        now.incrementAndGet();
+        long id = next.get(5, TimeUnit.SECONDS);
+        assertThat(millisOf(id)).isEqualTo(now.get() + 2);
+    }
+
+    /** A millisecond after every id issued so far, so its sequence starts at 0. */
+    private static long unusedMillis() {
+        return millisOf(TimeOrderedIdGenerator.nextId()) + 1;
+    }
+
+    private static long millisOf(long id) {
+        return (id >>> TimeOrderedIdGenerator.TIMESTAMP_SHIFT) + TimeOrderedIdGenerator.EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.DriverLocationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DriverLocationServiceTests {
+
+    private final DriverLocationService service = new DriverLocationService(mock(DriverLocationRepository.class),
+            mock(UserService.class), mock(DeliveryDriverService.class), mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 16, Duration.ofSeconds(30), 100);
+
+    @Test
+    void aPingFromAFastClockIsStoredAtServerTime() {
+        long before = System.currentTimeMillis();
+        DriverLocationService.IngestResult ahead = service.ingest(1, List.of(
+                new DriverLocationService.Ping(12.97, 77.59, before + 45_000, null)));
+        long after = System.currentTimeMillis();
+
+        assertThat(ahead.accepted()).isEqualTo(1);
+        assertThat(service.latest(1L).orElseThrow().recordedAt()).isBetween(before, after);
+
+        // A correct clock is not locked out for the 45 s the device was ahead; the next ping must be a later millisecond
+        while (System.currentTimeMillis() <= after) {
+            Thread.onSpinWait();
+        }
+        DriverLocationService.IngestResult next = service.ingest(1, List.of(
+                new DriverLocationService.Ping(12.98, 77.60, System.currentTimeMillis() + 1, null)));
+        assertThat(next.accepted()).isEqualTo(1);
+        assertThat(service.latest(1L).orElseThrow().latitude()).isEqualTo(12.98);
+    }
+
+    @Test
+    void pingsOutOfRangeOrTooFarAheadAreRejected() {
+        long now = System.currentTimeMillis();
+        DriverLocationService.IngestResult result = service.ingest(2, List.of(
+                new DriverLocationService.Ping(91.0, 77.59, now, null),
+                new DriverLocationService.Ping(12.97, null, now, null),
+                new DriverLocationService.Ping(12.97, 77.59, now + 120_000, null),
+                new DriverLocationService.Ping(12.97, 77.59, now - 1_000, -1f)));
+
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.accepted()).isEqualTo(1);
+        assertThat(service.latest(2L).orElseThrow().speed()).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DriverPositionStoreTests {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void slotsAreStablePerDriverUntilTheStoreIsFull() {
+        DriverPositionStore store = new DriverPositionStore(2, 30_000, 100);
+
+        int first = store.slot(11);
+        int second = store.slot(12);
+
+        assertThat(store.slot(11)).isEqualTo(first);
+        assertThat(second).isNotEqualTo(first);
+        assertThat(store.slot(13)).isEqualTo(-1);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get(13)).isNull();
+        assertThat(store.get(11)).as("no ping yet").isNull();
+    }
+
+    @Test
+    void olderPingsAreStaleAndDoNotReplaceTheLatest() {
+        DriverPositionStore store = new DriverPositionStore(4, 30_000, 100);
+        int slot = store.slot(7);
+
+        assertThat(store.update(slot, 12.97, 77.59, 5f, T0)).isEqualTo(DriverPositionStore.TRAIL_POINT);
+        assertThat(store.update(slot, 12.98, 77.60, 6f, T0 - 1)).isEqualTo(DriverPositionStore.STALE);
+        assertThat(store.update(slot, 12.98, 77.60, 6f, T0)).isEqualTo(DriverPositionStore.STALE);
+
+        DriverPositionStore.Position position = store.get(7);
+        assertThat(position.driverId()).isEqualTo(7);
+        assertThat(position.latitude()).isEqualTo(12.97);
+        assertThat(position.longitude()).isEqualTo(77.59);
+        assertThat(position.speed()).isEqualTo(5f);
+        assertThat(position.recordedAtMillis()).isEqualTo(T0);
+    }
+
+    @Test
+    void trailKeepsPointsFarEnoughInTimeOrDistance() {
+        DriverPositionStore store = new DriverPositionStore(4, 30_000, 100);
+        int slot = store.slot(7);
+        double lat = 12.9700;
+        // 0.0005 degrees of latitude is about 56 m
+        double step = 0.0005;
+
+        assertThat(store.update(slot, lat, 77.59, 0f, T0)).isEqualTo(DriverPositionStore.TRAIL_POINT);
+        assertThat(store.update(slot, lat + step, 77.59, 0f, T0 + 5_000)).isEqualTo(DriverPositionStore.UPDATED);
+        // 112 m from the last trail point, though only 56 m from the previous ping
+        assertThat(store.update(slot, lat + 2 * step, 77.59, 0f, T0 + 10_000)).isEqualTo(DriverPositionStore.TRAIL_POINT);
+        assertThat(store.update(slot, lat + 2 * step, 77.59, 0f, T0 + 39_999)).isEqualTo(DriverPositionStore.UPDATED);
+        assertThat(store.update(slot, lat + 2 * step, 77.59, 0f, T0 + 40_000)).isEqualTo(DriverPositionStore.TRAIL_POINT);
+        assertThat(store.get(7).recordedAtMillis()).isEqualTo(T0 + 40_000);
+    }
+
+    @Test
+    void distanceIsCloseToTheGreatCircleAtCityScale() {
+        // One degree of latitude is about 111.2 km; one of longitude at 60 degrees north about half that
+        assertThat(DriverPositionStore.distanceMeters(12, 77, 13, 77)).isCloseTo(111_195, within(200.0));
+        assertThat(DriverPositionStore.distanceMeters(60, 10, 60, 10.01)).isCloseTo(556, within(2.0));
+        assertThat(DriverPositionStore.distanceMeters(12.97, 77.59, 12.97, 77.59)).isZero();
+    }
+
+    @Test
+    void readersNeverSeeAHalfWrittenPosition() throws Exception {
+        DriverPositionStore store = new DriverPositionStore(1, 30_000, 100);
+        int slot = store.slot(1);
+        store.update(slot, 1, -1, 1f, 1);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> torn = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            int offset = w;
+            threads.add(new Thread(() -> {
+                await(start);
+                // Every write keeps longitude = -latitude and speed/time = latitude
+                for (int i = 2 + offset; i < 400_000; i += 2) {
+                    store.update(slot, i, -i, i, i);
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                while (!done.get()) {
+                    DriverPositionStore.Position p = store.get(1);
+                    if (p.longitude() != -p.latitude() || p.speed() != (float) p.latitude()
+                            || p.recordedAtMillis() != (long) p.latitude()) {
+                        torn.compareAndSet(null, p.toString());
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (int i = 0; i < 2; i++) {
+            threads.get(i).join();
+        }
+        done.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(torn.get()).isNull();
+        assertThat(store.get(1).recordedAtMillis()).isEqualTo(399_999);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DurationSketchTests {
+
+    @Test
+    void emptySketchHasNoQuantile() {
+        DurationSketch sketch = new DurationSketch(500);
+        sketch.add(0);
+        sketch.add(-5);
+        sketch.add(Double.NaN);
+
+        assertThat(sketch.samples()).isZero();
+        assertThat(sketch.quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void quantilesAreWithinTheBucketError() {
+        DurationSketch sketch = new DurationSketch(1_000_000);
+        Random random = new Random(7);
+        double[] values = new double[20_000];
+        for (int i = 0; i < values.length; i++) {
+            // Uniform between 5 and 45 minutes
+            values[i] = 300 + random.nextDouble() * 2400;
+            sketch.add(values[i]);
+        }
+
+        assertThat(sketch.samples()).isEqualTo(values.length);
+        assertThat(sketch.quantile(0.5)).isCloseTo(1500, within(1500 * 0.08));
+        assertThat(sketch.quantile(0.9)).isCloseTo(2460, within(2460 * 0.08));
+        assertThat(sketch.quantile(0.1)).isCloseTo(540, within(540 * 0.08));
+    }
+
+    @Test
+    void shortAndVeryLongDurationsLandInTheEndBuckets() {
+        DurationSketch sketch = new DurationSketch(500);
+        sketch.add(5);
+        assertThat(sketch.quantile(0.5)).isCloseTo(30 * Math.sqrt(1.15), within(0.01));
+
+        DurationSketch longOnes = new DurationSketch(500);
+        longOnes.add(86_400);
+        assertThat(longOnes.quantile(0.5)).isCloseTo(30 * Math.pow(1.15, 47.5), within(1.0));
+    }
+
+    @Test
+    void halvingLetsTheSketchFollowDrift() {
+        DurationSketch sketch = new DurationSketch(500);
+        for (int i = 0; i < 2_000; i++) {
+            sketch.add(600);
+        }
+        for (int i = 0; i < 1_500; i++) {
+            sketch.add(1800);
+        }
+
+        // Without decay the median would still be the old 600 s
+        assertThat(sketch.quantile(0.5)).isCloseTo(1800, within(1800 * 0.08));
+        assertThat(sketch.mean()).isCloseTo(1800, within(1.0));
+    }
+}
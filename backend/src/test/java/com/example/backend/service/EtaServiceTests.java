@@ -0,0 +1,117 @@
+package com.example.backend.service;
+
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.Order;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EtaServiceTests {
+
+    private static final long DRIVER_ID = 3;
+
+    private final DriverLocationService driverLocationService = mock(DriverLocationService.class);
+    private final EtaService etaService = new EtaService(driverLocationService, new SimpleMeterRegistry());
+    private final AtomicLong ids = new AtomicLong();
+    private final User customer = user(1);
+    private final Restaurant restaurant = restaurant(2);
+
+    @BeforeEach
+    void defaults() {
+        ReflectionTestUtils.setField(etaService, "defaultPrep", Duration.ofMinutes(20));
+        ReflectionTestUtils.setField(etaService, "defaultTravel", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(etaService, "defaultSpeed", 5.0);
+        ReflectionTestUtils.setField(etaService, "minSamples", 5);
+        ReflectionTestUtils.setField(etaService, "zoneCellDegrees", 0.01);
+        driverAt(12.9700, 77.5900);
+    }
+
+    @Test
+    void newOrdersUseTheDefaultsUntilThereAreEnoughSamples() {
+        EtaService.Eta eta = etaService.estimate(order("PENDING", "1 Home St", LocalDateTime.now())).orElseThrow();
+
+        assertThat(eta.seconds()).isBetween(2095L, 2100L);
+        assertThat(eta.upperSeconds()).isBetween(3145L, 3150L);
+    }
+
+    @Test
+    void learnedPrepTimesReplaceTheDefault() {
+        for (int i = 0; i < 5; i++) {
+            Order order = order("OUT_FOR_DELIVERY", "1 Home St", LocalDateTime.now().minusMinutes(10));
+            etaService.recordTransition(order, "PENDING");
+        }
+
+        EtaService.Eta eta = etaService.estimate(order("PENDING", "1 Home St", LocalDateTime.now())).orElseThrow();
+
+        // About 10 minutes of prep (within the sketch's bucket error) plus the default 15 minutes of travel
+        assertThat(eta.seconds()).isBetween(900L + 555, 900L + 645);
+    }
+
+    @Test
+    void outForDeliveryUsesTheDropOffOfTheSameAddressOnly() {
+        Order earlier = order("OUT_FOR_DELIVERY", "1 Home St", LocalDateTime.now().minusMinutes(30));
+        etaService.recordTransition(earlier, "PENDING");
+        earlier.setStatus("DELIVERED");
+        etaService.recordTransition(earlier, "OUT_FOR_DELIVERY");
+
+        // The driver is now 0.009 degrees (about 1 km) north of that drop-off
+        driverAt(12.9790, 77.5900);
+        Order home = order("OUT_FOR_DELIVERY", "  1 home   st ", LocalDateTime.now());
+        Order office = order("OUT_FOR_DELIVERY", "9 Office Park", LocalDateTime.now());
+
+        // 1 km at the default 5 m/s
+        assertThat(etaService.estimate(home).orElseThrow().seconds()).isBetween(195L, 205L);
+        // Never delivered there: the restaurant's (here default) travel time
+        assertThat(etaService.estimate(office).orElseThrow().seconds()).isEqualTo(900L);
+    }
+
+    @Test
+    void deliveredAndCancelledOrdersHaveNoEstimate() {
+        assertThat(etaService.estimate(order("DELIVERED", "1 Home St", LocalDateTime.now()))).isEmpty();
+        assertThat(etaService.estimate(order("CANCELLED", "1 Home St", LocalDateTime.now()))).isEmpty();
+    }
+
+    private void driverAt(double latitude, double longitude) {
+        when(driverLocationService.latest(anyLong())).thenAnswer(invocation -> Optional.of(
+                new DriverLocationService.Position(DRIVER_ID, latitude, longitude, null, System.currentTimeMillis())));
+    }
+
+    private Order order(String status, String address, LocalDateTime placed) {
+        Order order = new Order();
+        order.setId(ids.incrementAndGet());
+        order.setUser(customer);
+        order.setRestaurant(restaurant);
+        DeliveryDriver driver = new DeliveryDriver();
+        driver.setId(DRIVER_ID);
+        order.setDriver(driver);
+        order.setStatus(status);
+        order.setDeliveryAddress(address);
+        order.setOrderDate(placed);
+        return order;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Restaurant restaurant(long id) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        return restaurant;
+    }
+}
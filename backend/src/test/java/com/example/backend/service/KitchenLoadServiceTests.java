@@ -0,0 +1,107 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Order;
+import com.example.backend.model.Restaurant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class KitchenLoadServiceTests {
+
+    private final KitchenLoadService service = new KitchenLoadService(mock(OrderService.class), new SimpleMeterRegistry());
+    private final Restaurant restaurant = new Restaurant();
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "defaultCapacity", 30);
+        ReflectionTestUtils.setField(service, "queueLength", 1);
+        ReflectionTestUtils.setField(service, "maxOrderAge", Duration.ofHours(2));
+        restaurant.setId(1L);
+        restaurant.setKitchenCapacity(1);
+    }
+
+    @Test
+    void cashOnDeliveryOrdersCountAtOnce() {
+        service.track(order(10L, "COD", "PENDING"));
+
+        assertThat(service.load(1L)).isEqualTo(1);
+        assertThat(service.admit(restaurant)).isEqualTo(KitchenLoadService.Admission.QUEUED);
+    }
+
+    @Test
+    void unpaidOnlineOrdersDoNotFillTheKitchen() {
+        for (long id = 10; id < 20; id++) {
+            service.track(order(id, "UPI", "PENDING"));
+        }
+
+        assertThat(service.load(1L)).isZero();
+        assertThat(service.admit(restaurant)).isEqualTo(KitchenLoadService.Admission.ADMITTED);
+    }
+
+    @Test
+    void paymentOrConfirmationStartsCountingOnce() {
+        service.track(order(10L, "UPI", "PENDING"));
+        service.track(order(11L, "UPI", "PENDING"));
+
+        service.onPaymentChange(10L, "FAILED");
+        assertThat(service.load(1L)).isZero();
+        service.onPaymentChange(10L, "PAID");
+        service.onPaymentChange(10L, "PAID");
+        service.onStatusChange(10L, "CONFIRMED");
+        assertThat(service.load(1L)).isEqualTo(1);
+
+        service.onStatusChange(11L, "PENDING");
+        assertThat(service.load(1L)).isEqualTo(1);
+        service.onStatusChange(11L, "CONFIRMED");
+        assertThat(service.load(1L)).isEqualTo(2);
+        assertThat(service.admit(restaurant)).isEqualTo(KitchenLoadService.Admission.REJECTED);
+    }
+
+    @Test
+    void releasingAHeldOrderLeavesTheCountAlone() {
+        service.track(order(10L, "COD", "PENDING"));
+        service.track(order(11L, "UPI", "PENDING"));
+
+        service.onStatusChange(11L, "CANCELLED");
+        service.onPaymentChange(11L, "PAID");
+        assertThat(service.load(1L)).isEqualTo(1);
+
+        service.onStatusChange(10L, "OUT_FOR_DELIVERY");
+        service.release(10L);
+        assertThat(service.load(1L)).isZero();
+    }
+
+    @Test
+    void staleTicketsAreDroppedWhetherCountedOrNot() {
+        Order counted = order(10L, "COD", "PENDING");
+        counted.setOrderDate(LocalDateTime.now().minusHours(3));
+        Order held = order(11L, "UPI", "PENDING");
+        held.setOrderDate(LocalDateTime.now().minusHours(3));
+        service.track(counted);
+        service.track(held);
+
+        service.dropStaleTickets();
+        service.onPaymentChange(11L, "PAID");
+
+        assertThat(service.load(1L)).isZero();
+    }
+
+    private Order order(Long id, String paymentMethod, String paymentStatus) {
+        Order order = new Order();
+        order.setId(id);
+        order.setRestaurant(restaurant);
+        order.setOrderDate(LocalDateTime.now());
+        order.setStatus("PENDING");
+        order.setPaymentMethod(paymentMethod);
+        order.setPaymentStatus(paymentStatus);
+        return order;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MenuImportServiceTests {
+
+    private static final String HASH = "0f".repeat(32);
+
+    @Autowired
+    private MenuImportService menuImportService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private MenuItemService menuItemService;
+
+    private Restaurant restaurant;
+    private MenuItem uploaded;
+
+    @BeforeEach
+    void restaurantWithAnUploadedImage() {
+        restaurant = new Restaurant();
+        restaurant.setName("Import Test");
+        restaurant = restaurantService.save(restaurant);
+        MenuItem item = new MenuItem();
+        item.setName("Dosa");
+        item.setPrice(80.0);
+        item.setRestaurant(restaurant);
+        item.setUploadedImage(HASH);
+        uploaded = menuItemService.save(item);
+    }
+
+    @Test
+    void rowsWithoutAnImageKeepTheUploadedOne() throws Exception {
+        MenuImportService.ImportReport csv = importMenu(true, """
+                name,price
+                Dosa,90
+                """);
+        MenuImportService.ImportReport json = importMenu(false, """
+                [{"name": "Dosa", "price": 90, "image": null}, {"name": "Idli", "price": 40, "image": ""}]
+                """);
+
+        assertThat(csv.updated()).isEqualTo(1);
+        assertThat(json.unchanged()).isEqualTo(1);
+        assertThat(json.inserted()).isEqualTo(1);
+        MenuItem item = menuItemService.findById(uploaded.getId()).orElseThrow();
+        assertThat(item.getPrice()).isEqualTo(90.0);
+        assertThat(item.getImageHash()).isEqualTo(HASH);
+        assertThat(item.getImage()).isEqualTo(MenuItem.imageUrl(HASH, MenuItem.IMAGE_WIDTHS[1]));
+    }
+
+    @Test
+    void anUnchangedImageUrlIsNotAnUpdate() throws Exception {
+        MenuImportService.ImportReport report = importMenu(true, """
+                name,price,image
+                Dosa,80,%s
+                """.formatted(uploaded.getImage()));
+
+        assertThat(report.unchanged()).isEqualTo(1);
+        assertThat(menuItemService.findById(uploaded.getId()).orElseThrow().getImageHash()).isEqualTo(HASH);
+    }
+
+    @Test
+    void aNewImageUrlReplacesTheUploadedImage() throws Exception {
+        MenuImportService.ImportReport report = importMenu(true, """
+                name,price,image
+                Dosa,80,https://cdn.example.com/dosa.jpg
+                """);
+
+        assertThat(report.updated()).isEqualTo(1);
+        MenuItem item = menuItemService.findById(uploaded.getId()).orElseThrow();
+        assertThat(item.getImage()).isEqualTo("https://cdn.example.com/dosa.jpg");
+        assertThat(item.getImageHash()).isNull();
+    }
+
+    @Test
+    void itemsMissingFromTheFileAreDeleted() throws Exception {
+        MenuImportService.ImportReport report = importMenu(true, """
+                name,price
+                Vada,30
+                """);
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.deleted()).isEqualTo(1);
+        assertThat(menuItemService.findById(uploaded.getId())).isEmpty();
+        assertThat(menuItemService.findByRestaurantId(restaurant.getId()))
+                .extracting(MenuItem::getName).containsExactly("Vada");
+    }
+
+    private MenuImportService.ImportReport importMenu(boolean csv, String body) throws Exception {
+        return menuImportService.importMenu(restaurant,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), csv, true);
+    }
+}
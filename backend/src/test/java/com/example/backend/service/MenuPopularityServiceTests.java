@@ -0,0 +1,100 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MenuPopularityServiceTests {
+
+    private static final long RESTAURANT = 1L;
+    private static final long HALF_LIFE = TimeUnit.MINUTES.toMillis(60);
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private MenuPopularityService popularity;
+
+    @BeforeEach
+    void setUp() {
+        popularity = new MenuPopularityService();
+        ReflectionTestUtils.setField(popularity, "capacity", 3);
+        ReflectionTestUtils.setField(popularity, "halfLifeMinutes", 60L);
+        popularity.useClock(now::get);
+    }
+
+    @Test
+    void aFullTableEvictsTheSmallestCounterAndTheNewcomerInheritsIt() {
+        popularity.record(RESTAURANT, 10L, 5);
+        popularity.record(RESTAURANT, 20L, 3);
+        popularity.record(RESTAURANT, 30L, 2);
+        popularity.record(RESTAURANT, 40L, 1);
+
+        Map<Long, Double> scores = popularity.scores(RESTAURANT);
+        assertThat(scores).containsOnlyKeys(10L, 20L, 40L);
+        assertThat(scores.get(40L)).isCloseTo(3.0, within(1e-9));
+        assertThat(scores.get(10L)).isCloseTo(5.0, within(1e-9));
+    }
+
+    @Test
+    void olderOrdersFadeBehindRecentOnes() {
+        popularity.record(RESTAURANT, 10L, 4);
+        now.addAndGet(HALF_LIFE);
+        popularity.record(RESTAURANT, 20L, 3);
+
+        Map<Long, Double> scores = popularity.scores(RESTAURANT);
+        assertThat(scores.get(10L)).isCloseTo(2.0, within(1e-9));
+        assertThat(scores.get(20L)).isCloseTo(3.0, within(1e-9));
+
+        now.addAndGet(HALF_LIFE);
+        scores = popularity.scores(RESTAURANT);
+        assertThat(scores.get(10L)).isCloseTo(1.0, within(1e-9));
+        assertThat(scores.get(20L)).isCloseTo(1.5, within(1e-9));
+    }
+
+    @Test
+    void decayStaysAccurateAcrossALandmarkRescale() {
+        popularity.record(RESTAURANT, 10L, 8);
+        now.addAndGet(40 * HALF_LIFE);
+        popularity.record(RESTAURANT, 20L, 1);
+        now.addAndGet(HALF_LIFE);
+
+        Map<Long, Double> scores = popularity.scores(RESTAURANT);
+        assertThat(scores.get(20L)).isCloseTo(0.5, within(1e-9));
+        assertThat(scores.get(10L)).isCloseTo(8 * Math.pow(2, -41), within(1e-15));
+    }
+
+    @Test
+    void heavyHittersKeepTheTopSpotsAmongManyOneOffItems() {
+        for (int round = 0; round < 50; round++) {
+            popularity.record(RESTAURANT, 1L, 3);
+            popularity.record(RESTAURANT, 2L, 2);
+            popularity.record(RESTAURANT, 1000L + round, 1);
+            now.addAndGet(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        List<Long> top = popularity.scores(RESTAURANT).entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .limit(2)
+                .toList();
+        assertThat(top).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void restaurantsAreTrackedSeparatelyAndInvalidInputIsIgnored() {
+        popularity.record(RESTAURANT, 10L, 2);
+        popularity.record(2L, 20L, 1);
+        popularity.record(RESTAURANT, 30L, 0);
+        popularity.record(RESTAURANT, null, 1);
+
+        assertThat(popularity.scores(RESTAURANT)).containsOnlyKeys(10L);
+        assertThat(popularity.scores(2L)).containsOnlyKeys(20L);
+        assertThat(popularity.scores(3L)).isEmpty();
+    }
+}
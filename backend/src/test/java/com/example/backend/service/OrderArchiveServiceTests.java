@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.Order;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Archives orders with a zero minimum age, so every order placed so far is old enough by id and
+ * only the order date and status decide, then reads them back through the order lists.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderArchiveServiceTests {
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private DeliveryDriverService deliveryDriverService;
+
+    private User user;
+    private Restaurant restaurant;
+    private DeliveryDriver driver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderArchiveService, "minAge", Duration.ZERO);
+        User created = new User();
+        created.setName("Archive Test");
+        created.setEmail("archive-" + UUID.randomUUID() + "@example.com");
+        created.setPassword("password");
+        user = userService.createUser(created);
+        restaurant = restaurantService.findAll().get(0);
+        DeliveryDriver newDriver = new DeliveryDriver();
+        newDriver.setName("Archive Driver");
+        newDriver.setAvailable(Boolean.TRUE);
+        driver = deliveryDriverService.save(newDriver);
+    }
+
+    @AfterEach
+    void restoreMinAge() {
+        ReflectionTestUtils.setField(orderArchiveService, "minAge", Duration.ofDays(90));
+    }
+
+    @Test
+    void onlyTerminalOrdersDatedBeforeTheCutoffAreArchived() {
+        Order delivered = place("DELIVERED", LocalDateTime.now().minusDays(1));
+        Order datedAhead = place("DELIVERED", LocalDateTime.now().plusHours(1));
+        Order pending = place("PENDING", LocalDateTime.now().minusDays(1));
+
+        orderArchiveService.archive();
+
+        assertThat(orderService.findById(delivered.getId()).orElseThrow().isArchived()).isTrue();
+        assertThat(orderService.findById(datedAhead.getId()).orElseThrow().isArchived()).isFalse();
+        assertThat(orderService.findById(pending.getId()).orElseThrow().isArchived()).isFalse();
+    }
+
+    @Test
+    void orderListsMergeArchivedOrdersNewestFirst() {
+        Order oldest = place("CANCELLED", LocalDateTime.now().minusDays(3));
+        Order live = place("PENDING", LocalDateTime.now().minusDays(2));
+        Order archived = place("DELIVERED", LocalDateTime.now().minusDays(1));
+        orderArchiveService.archive();
+
+        List<Order> byUser = orderService.findByUserId(user.getId());
+        assertThat(byUser).extracting(Order::getId).containsExactly(archived.getId(), live.getId(), oldest.getId());
+        assertThat(byUser).extracting(Order::isArchived).containsExactly(true, false, true);
+        assertThat(byUser.get(0).getRestaurant().getName()).isEqualTo(restaurant.getName());
+        assertThat(byUser.get(0).getDriver().getId()).isEqualTo(driver.getId());
+
+        assertThat(orderService.findByDriverId(driver.getId())).extracting(Order::getId)
+                .containsExactly(archived.getId(), live.getId(), oldest.getId());
+        assertThat(orderService.findDetachedByDriverId(driver.getId())).extracting(Order::getId)
+                .containsExactly(archived.getId(), live.getId(), oldest.getId());
+        assertThat(orderService.findAll()).extracting(Order::getId)
+                .contains(archived.getId(), live.getId(), oldest.getId());
+    }
+
+    private Order place(String status, LocalDateTime orderDate) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        order.setDriver(driver);
+        order.setStatus(status);
+        order.setOrderDate(orderDate);
+        order.setTotalAmount(100.0);
+        order.setPaymentMethod("COD");
+        order.setPaymentStatus("PENDING");
+        return orderService.save(order);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderExpiryServiceTests {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final KitchenLoadService kitchenLoadService = mock(KitchenLoadService.class);
+    private final OrderExpiryService expiryService = new OrderExpiryService(orderService, kitchenLoadService,
+            new SimpleMeterRegistry(), Duration.ofMinutes(15), Duration.ofMillis(1), Duration.ofMillis(1), 1000);
+
+    @Test
+    void aFailedBatchIsRetriedOnALaterTick() throws InterruptedException {
+        when(orderService.expirePendingPayments(anyCollection()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of(1L));
+        expiryService.schedule(1L, LocalDateTime.now().minusHours(1));
+        Thread.sleep(5);
+
+        expiryService.expireDueOrders();
+
+        assertThat(expiryService.scheduledCount()).isEqualTo(1);
+        verify(kitchenLoadService, never()).release(1L);
+
+        Thread.sleep(5);
+        expiryService.expireDueOrders();
+
+        verify(orderService, times(2)).expirePendingPayments(List.of(1L));
+        verify(kitchenLoadService).release(1L);
+        assertThat(expiryService.scheduledCount()).isZero();
+    }
+
+    @Test
+    void onlyDueOrdersAreExpired() throws InterruptedException {
+        when(orderService.expirePendingPayments(anyCollection())).thenReturn(List.of(1L));
+        expiryService.schedule(1L, LocalDateTime.now().minusHours(1));
+        expiryService.schedule(2L, LocalDateTime.now());
+        Thread.sleep(5);
+
+        expiryService.expireDueOrders();
+
+        verify(orderService).expirePendingPayments(List.of(1L));
+        assertThat(expiryService.scheduledCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.backend.service;
+
+import com.example.backend.config.OrderShards;
+import com.example.backend.model.DeliveryDriver;
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.Role;
+import com.example.backend.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Places, reads, lists and cancels orders through the HTTP API with three in-memory shards
+ * (profile "sharded"), and checks where the rows ended up in each database.
+ */
+@SpringBootTest
+@ActiveProfiles("sharded")
+@AutoConfigureMockMvc
+class OrderShardingTests {
+
+    private static final String[] SHARD_URLS = {"jdbc:h2:mem:shard0", "jdbc:h2:mem:shard1", "jdbc:h2:mem:shard2"};
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OrderShards orderShards;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private MenuItemService menuItemService;
+    @Autowired
+    private DeliveryDriverService deliveryDriverService;
+
+    @Test
+    void ordersAreWrittenToTheShardOfTheirId() throws Exception {
+        User user = newCustomer();
+        List<Long> ids = placeOrders(user, 9);
+
+        Set<Integer> shardsUsed = new HashSet<>();
+        for (Long id : ids) {
+            int shard = orderShards.shardOf(id);
+            shardsUsed.add(shard);
+            for (int other = 0; other < SHARD_URLS.length; other++) {
+                assertThat(statusOnShard(other, id)).as("order %d on shard %d", id, other)
+                        .isEqualTo(other == shard ? "PENDING" : null);
+            }
+        }
+        assertThat(orderShards.shardCount()).isEqualTo(3);
+        assertThat(shardsUsed).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void detailAndListsResolveTheCatalogFromShardZero() throws Exception {
+        User user = newCustomer();
+        List<Long> ids = placeOrders(user, 6);
+        Long offShardZero = ids.stream().filter(id -> orderShards.shardOf(id) != 0).findFirst().orElseThrow();
+
+        JsonNode detail = json(asyncGet("/api/orders/{id}?userId={userId}", offShardZero, user.getId()));
+        assertThat(detail.path("id").asLong()).isEqualTo(offShardZero);
+        assertThat(detail.path("restaurant").path("name").asText()).isNotBlank();
+        assertThat(detail.path("items").get(0).path("menuItem").path("name").asText()).isNotBlank();
+
+        JsonNode list = json(mockMvc.perform(get("/api/orders/user/{userId}", user.getId()))
+                .andExpect(status().isOk()).andReturn());
+        List<Long> listed = new ArrayList<>();
+        list.forEach(order -> {
+            listed.add(order.path("id").asLong());
+            assertThat(order.path("restaurant").path("name").asText()).isNotBlank();
+        });
+        // Newest first, merged across the shards
+        assertThat(listed).containsExactlyElementsOf(ids.reversed());
+
+        JsonNode history = json(mockMvc.perform(get("/api/orders/user/{userId}/history", user.getId()))
+                .andExpect(status().isOk()).andReturn());
+        assertThat(history.path("orders")).hasSize(6);
+        history.path("orders").forEach(row -> assertThat(row.path("restaurantName").asText()).isNotBlank());
+
+        JsonNode all = json(mockMvc.perform(get("/api/admin/orders").param("userId", adminId().toString()))
+                .andExpect(status().isOk()).andReturn());
+        List<Long> allIds = new ArrayList<>();
+        all.forEach(order -> allIds.add(order.path("id").asLong()));
+        assertThat(allIds).containsAll(ids);
+    }
+
+    @Test
+    void cancellingAnOrderWithADriverOffShardZeroFreesTheDriver() throws Exception {
+        User user = newCustomer();
+        Long orderId = placeOrders(user, 6).stream()
+                .filter(id -> orderShards.shardOf(id) != 0).findFirst().orElseThrow();
+        DeliveryDriver driver = deliveryDriverService.findAll().get(0);
+
+        mockMvc.perform(patch("/api/admin/orders/{id}", orderId).param("userId", adminId().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"driverId\": " + driver.getId() + "}"))
+                .andExpect(status().isOk());
+        assertThat(deliveryDriverService.findById(driver.getId()).orElseThrow().getAvailable()).isFalse();
+
+        mockMvc.perform(patch("/api/orders/{id}/cancel", orderId).param("userId", user.getId().toString()))
+                .andExpect(status().isOk());
+
+        assertThat(statusOnShard(orderShards.shardOf(orderId), orderId)).isEqualTo("CANCELLED");
+        assertThat(deliveryDriverService.findById(driver.getId()).orElseThrow().getAvailable()).isTrue();
+        JsonNode detail = json(asyncGet("/api/orders/{id}?userId={userId}", orderId, user.getId()));
+        assertThat(detail.path("status").asText()).isEqualTo("CANCELLED");
+        assertThat(detail.path("driver").isNull()).isTrue();
+    }
+
+    private List<Long> placeOrders(User user, int count) throws Exception {
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MvcResult result = mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"userId": %d, "restaurantId": %d, "paymentMethod": "COD",
+                                     "items": [{"menuItemId": %d, "quantity": 1}]}
+                                    """.formatted(user.getId(), restaurant.getId(), item.getId())))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ids.add(json(result).path("orderId").asLong());
+        }
+        return ids;
+    }
+
+    private User newCustomer() {
+        User user = new User();
+        user.setName("Shard Test");
+        user.setEmail("shard-" + UUID.randomUUID() + "@example.com");
+        user.setAddress("1 Test Rd");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        return userService.createUser(user);
+    }
+
+    private Long adminId() {
+        return userService.findByEmail("admin@example.com").orElseThrow().getId();
+    }
+
+    private MvcResult asyncGet(String path, Object... variables) throws Exception {
+        MvcResult started = mockMvc.perform(get(path, variables)).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static String statusOnShard(int shard, Long orderId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(SHARD_URLS[shard], "sa", "");
+             PreparedStatement statement = connection.prepareStatement("select status from orders where id = ?")) {
+            statement.setLong(1, orderId);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getString(1) : null;
+            }
+        }
+    }
+}
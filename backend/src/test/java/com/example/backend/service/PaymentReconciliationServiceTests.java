@@ -0,0 +1,177 @@
+package com.example.backend.service;
+
+import com.example.backend.model.MenuItem;
+import com.example.backend.model.Restaurant;
+import com.example.backend.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Feeds settlement files through the inbox and checks the payment status each order ends up with.
+ */
+@SpringBootTest(properties = "app.rate-limit.enabled=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class PaymentReconciliationServiceTests {
+
+    @Autowired
+    private PaymentReconciliationService reconciliationService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private MenuItemService menuItemService;
+
+    @TempDir
+    private Path inbox;
+
+    @BeforeEach
+    void useTempInbox() {
+        ReflectionTestUtils.setField(reconciliationService, "inboxDir", inbox.toString());
+    }
+
+    @AfterEach
+    void restoreInbox() {
+        ReflectionTestUtils.setField(reconciliationService, "inboxDir", "");
+    }
+
+    @Test
+    void parsesTheOrderIdFromBareAndFullUpiReferences() {
+        assertThat(PaymentReconciliationService.parseOrderReference("ORD42")).isEqualTo(42);
+        assertThat(PaymentReconciliationService.parseOrderReference(
+                "upi://pay?pa=food@upi&pn=Food&tr=ORD1234&am=250.00&cu=INR")).isEqualTo(1234);
+        assertThat(PaymentReconciliationService.parseOrderReference("ORD7 settled")).isEqualTo(7);
+        assertThat(PaymentReconciliationService.parseOrderReference("ORD")).isEqualTo(-1);
+        assertThat(PaymentReconciliationService.parseOrderReference("ORDX12")).isEqualTo(-1);
+        assertThat(PaymentReconciliationService.parseOrderReference("TXN12")).isEqualTo(-1);
+        assertThat(PaymentReconciliationService.parseOrderReference(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void csvLinesMatchOnReferenceAndAmount() throws Exception {
+        long paid = placeOrder();
+        long wrongAmount = placeOrder();
+        long failed = placeOrder();
+        Files.writeString(inbox.resolve("settlement.csv"), """
+                tr,status,amount
+                "upi://pay?pa=food@upi&tr=ORD%d&cu=INR",SUCCESS,%s
+                ORD%d,SETTLED,%s
+                ORD%d,DECLINED,
+                ORD999999999,SUCCESS,1.00
+                not-a-reference,SUCCESS,1.00
+                ORD%d,ON_HOLD,1.00
+                ORD%d
+                """.formatted(paid, total(paid), wrongAmount, total(wrongAmount) + 1, failed, failed, failed));
+
+        PaymentReconciliationService.ReconciliationReport report = reconciliationService.reconcileInbox();
+
+        assertThat(report.files()).isEqualTo(1);
+        assertThat(report.lines()).isEqualTo(7);
+        assertThat(report.paid()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.amountMismatch()).isEqualTo(1);
+        assertThat(report.unmatched()).isEqualTo(1);
+        assertThat(report.malformed()).isEqualTo(3);
+        assertThat(paymentStatus(paid)).isEqualTo("PAID");
+        assertThat(paymentStatus(wrongAmount)).isEqualTo("PENDING");
+        assertThat(paymentStatus(failed)).isEqualTo("FAILED");
+        assertThat(inbox.resolve("processed").resolve("settlement.csv")).exists();
+    }
+
+    @Test
+    void successAfterFailureInTheSameFileMarksTheOrderPaid() throws Exception {
+        long retried = placeOrder();
+        long failedTwice = placeOrder();
+        Files.writeString(inbox.resolve("settlement.json"), """
+                [{"reference": "ORD%d", "status": "FAILED", "meta": {"code": "U30"}},
+                 {"reference": "ORD%d", "status": "FAILED"},
+                 {"reference": "ORD%d", "status": "SUCCESS", "amount": %s},
+                 {"reference": "ORD%d", "status": "FAILED"}]
+                """.formatted(retried, failedTwice, retried, total(retried), failedTwice));
+
+        PaymentReconciliationService.ReconciliationReport report = reconciliationService.reconcileInbox();
+
+        assertThat(report.paid()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(report.unmatched()).isEqualTo(1);
+        assertThat(paymentStatus(retried)).isEqualTo("PAID");
+        assertThat(paymentStatus(failedTwice)).isEqualTo("FAILED");
+    }
+
+    @Test
+    void successInALaterRunOverridesAWrittenFailure() throws Exception {
+        long orderId = placeOrder();
+        Files.writeString(inbox.resolve("a.jsonl"), "{\"tr\": \"ORD%d\", \"status\": \"FAILED\"}\n".formatted(orderId));
+        reconciliationService.reconcileInbox();
+        assertThat(paymentStatus(orderId)).isEqualTo("FAILED");
+
+        Files.writeString(inbox.resolve("b.jsonl"), """
+                {"tr": "ORD%d", "status": "SUCCESS", "amount": "%s"}
+                {"tr": "ORD%d", "status": "FAILED"}
+                {"tr": "ORD%d", "status": "SUCCESS"}
+                """.formatted(orderId, total(orderId), orderId, orderId));
+        PaymentReconciliationService.ReconciliationReport report = reconciliationService.reconcileInbox();
+
+        assertThat(report.paid()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        assertThat(report.unmatched()).isEqualTo(2);
+        assertThat(paymentStatus(orderId)).isEqualTo("PAID");
+    }
+
+    @Test
+    void unreadableFilesMoveToFailed() throws Exception {
+        Files.writeString(inbox.resolve("broken.csv"), "order,outcome\nORD1,SUCCESS\n");
+
+        reconciliationService.reconcileInbox();
+
+        assertThat(inbox.resolve("failed").resolve("broken.csv")).exists();
+    }
+
+    private long placeOrder() throws Exception {
+        User user = userService.findByEmail("user@example.com").orElseThrow();
+        Restaurant restaurant = restaurantService.findAll().get(0);
+        MenuItem item = menuItemService.findByRestaurantId(restaurant.getId()).get(0);
+        MvcResult result = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"userId": %d, "restaurantId": %d, "paymentMethod": "COD",
+                                 "items": [{"menuItemId": %d, "quantity": 1}]}
+                                """.formatted(user.getId(), restaurant.getId(), item.getId())))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).path("orderId").asLong();
+    }
+
+    private double total(long orderId) {
+        return orderService.findById(orderId).orElseThrow().getTotalAmount();
+    }
+
+    private String paymentStatus(long orderId) {
+        return orderService.findById(orderId).orElseThrow().getPaymentStatus();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Promotion;
+import com.example.backend.repository.PromotionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prices an 8-line cart against a rule set compiled from {@code promotions} active promotions: a mix of
+ * BOGO items, restaurant and global PERCENT/FLAT promotions and codes, spread over 50 restaurants.
+ * Run it by hand (see "Pricing and promotions" in README.md); surefire skips it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingServiceBenchmark {
+
+    @Param("1000")
+    private int promotions;
+
+    private PricingService pricingService;
+    private PricingService.Cart cart;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Promotion> active = new ArrayList<>();
+        for (int i = 0; i < promotions; i++) {
+            Promotion promotion = new Promotion();
+            promotion.setId((long) i + 1);
+            promotion.setActive(true);
+            switch (i % 4) {
+                case 0 -> {
+                    promotion.setType(Promotion.BOGO);
+                    promotion.setMenuItemId((long) random.nextInt(1, 2_000));
+                }
+                case 1 -> {
+                    promotion.setType(Promotion.PERCENT);
+                    promotion.setPercentBps(random.nextInt(500, 3_000));
+                    promotion.setMaxDiscountPaise(15_000L);
+                    promotion.setRestaurantId((long) random.nextInt(1, 51));
+                }
+                case 2 -> {
+                    promotion.setType(Promotion.FLAT);
+                    promotion.setAmountPaise((long) random.nextInt(2_000, 10_000));
+                    promotion.setMinSubtotalPaise((long) random.nextInt(20_000, 80_000));
+                    promotion.setRestaurantId(i % 8 == 2 ? null : (long) random.nextInt(1, 51));
+                }
+                default -> {
+                    promotion.setType(Promotion.PERCENT);
+                    promotion.setPercentBps(1_000);
+                    promotion.setCode("CODE" + i);
+                }
+            }
+            active.add(promotion);
+        }
+        PromotionRepository repository = mock(PromotionRepository.class);
+        when(repository.findByActiveTrue()).thenReturn(active);
+        pricingService = new PricingService(repository, mock(PlatformTransactionManager.class),
+                List.of("0:4900", "20000:2900", "50000:0"), 500, 1800);
+        pricingService.reload();
+
+        cart = new PricingService.Cart();
+        for (int line = 0; line < 8; line++) {
+            cart.add(random.nextInt(1, 2_000), random.nextInt(5_000, 40_000), random.nextInt(1, 4));
+        }
+    }
+
+    @Benchmark
+    public PricingService.Quote quoteEightLines() {
+        return pricingService.quote(7, cart, null);
+    }
+
+    @Benchmark
+    public PricingService.Quote quoteEightLinesWithCode() {
+        return pricingService.quote(7, cart, "CODE3");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PricingServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Promotion;
+import com.example.backend.repository.PromotionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PricingServiceTests {
+
+    private static final long RESTAURANT = 7;
+
+    @Test
+    void gstIsRoundedHalfUpPerComponent() {
+        PricingService pricing = pricing();
+
+        // 5% of 100.10 is 5.005 -> 5.01; 18% of the 49.00 fee is exactly 8.82
+        PricingService.Quote up = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 10_010, 1), null);
+        assertThat(up.deliveryFeePaise()).isEqualTo(4_900);
+        assertThat(up.taxPaise()).isEqualTo(501 + 882);
+        assertThat(up.totalPaise()).isEqualTo(10_010 + 4_900 + 501 + 882);
+        assertThat(up.totalAmount()).isEqualTo(162.93);
+
+        // 5% of 100.09 is 5.0045 -> 5.00
+        PricingService.Quote down = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 10_009, 1), null);
+        assertThat(down.taxPaise()).isEqualTo(500 + 882);
+    }
+
+    @Test
+    void deliveryFeeTiersStartAtTheirThreshold() {
+        PricingService pricing = pricing();
+
+        assertThat(fee(pricing, 19_999)).isEqualTo(4_900);
+        assertThat(fee(pricing, 20_000)).isEqualTo(2_900);
+        assertThat(fee(pricing, 49_999)).isEqualTo(2_900);
+        assertThat(fee(pricing, 50_000)).isZero();
+        assertThat(pricing.quote(RESTAURANT, new PricingService.Cart(), null).deliveryFeePaise()).isZero();
+    }
+
+    @Test
+    void theTierIsChosenAfterDiscounts() {
+        PricingService pricing = pricing(flat(1, null, 1_000, 0));
+
+        PricingService.Quote quote = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 50_000, 1), null);
+
+        assertThat(quote.orderDiscountPaise()).isEqualTo(1_000);
+        assertThat(quote.deliveryFeePaise()).isEqualTo(2_900);
+    }
+
+    @Test
+    void onlyTheBestOrderPromotionApplies() {
+        Promotion capped = percent(1, RESTAURANT, 2_000, null);
+        capped.setMaxDiscountPaise(3_000L);
+        Promotion global = flat(2, null, 3_500, 20_000);
+        Promotion tooBig = flat(3, RESTAURANT, 9_000, 50_000);
+        Promotion otherRestaurant = flat(4, 8L, 9_000, 0);
+        PricingService pricing = pricing(capped, global, tooBig, otherRestaurant);
+
+        PricingService.Quote quote = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 20_000, 1), null);
+
+        assertThat(quote.promotionId()).isEqualTo(2L);
+        assertThat(quote.orderDiscountPaise()).isEqualTo(3_500);
+        assertThat(quote.totalPaise()).isEqualTo(16_500 + 4_900 + 825 + 882);
+    }
+
+    @Test
+    void anEnteredCodeCompetesWithAutomaticPromotions() {
+        PricingService pricing = pricing(flat(1, RESTAURANT, 1_500, 0), percent(2, null, 1_000, "SAVE10"));
+
+        PricingService.Quote better = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 20_000, 1), " Save10 ");
+        assertThat(better.promotionId()).isEqualTo(2L);
+        assertThat(better.promoCode()).isEqualTo("SAVE10");
+        assertThat(better.orderDiscountPaise()).isEqualTo(2_000);
+
+        PricingService.Quote worse = pricing.quote(RESTAURANT, new PricingService.Cart().add(1, 10_000, 1), "SAVE10");
+        assertThat(worse.promotionId()).isEqualTo(1L);
+        assertThat(worse.orderDiscountPaise()).isEqualTo(1_500);
+    }
+
+    @Test
+    void bogoStacksWithTheOrderPromotion() {
+        Promotion bogo = new Promotion();
+        bogo.setId(1L);
+        bogo.setType(Promotion.BOGO);
+        bogo.setMenuItemId(5L);
+        PricingService pricing = pricing(bogo, percent(2, null, 1_000, null));
+
+        PricingService.Quote quote = pricing.quote(RESTAURANT,
+                new PricingService.Cart().add(5, 10_000, 3).add(6, 5_000, 1), null);
+
+        assertThat(quote.subtotalPaise()).isEqualTo(35_000);
+        assertThat(quote.itemDiscountPaise()).isEqualTo(10_000);
+        assertThat(quote.orderDiscountPaise()).isEqualTo(2_500);
+    }
+
+    @Test
+    void unusableCodesAreRejected() {
+        Promotion expired = flat(1, null, 1_000, 0);
+        expired.setCode("OLD");
+        expired.setValidUntil(LocalDateTime.now().minusDays(1));
+        Promotion elsewhere = flat(2, 8L, 1_000, 0);
+        elsewhere.setCode("ELSEWHERE");
+        Promotion minimum = flat(3, null, 1_000, 30_000);
+        minimum.setCode("BIG");
+        PricingService pricing = pricing(expired, elsewhere, minimum);
+        PricingService.Cart cart = new PricingService.Cart().add(1, 20_000, 1);
+
+        assertThatThrownBy(() -> pricing.quote(RESTAURANT, cart, "NOPE")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricing.quote(RESTAURANT, cart, "OLD")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricing.quote(RESTAURANT, cart, "ELSEWHERE")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricing.quote(RESTAURANT, cart, "big"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("300.00");
+    }
+
+    @Test
+    void quantitiesOutsideTheAllowedRangeAndOverflowingTotalsAreRejected() {
+        PricingService pricing = pricing();
+        PricingService.Cart cart = new PricingService.Cart();
+
+        assertThatThrownBy(() -> cart.add(1, 10_000, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cart.add(1, 10_000, -2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cart.add(1, 10_000, 1_000)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(cart.size()).isZero();
+
+        cart.add(1, Long.MAX_VALUE / 2, 999);
+        assertThatThrownBy(() -> pricing.quote(RESTAURANT, cart, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+    }
+
+    private static long fee(PricingService pricing, long subtotal) {
+        return pricing.quote(RESTAURANT, new PricingService.Cart().add(1, subtotal, 1), null).deliveryFeePaise();
+    }
+
+    private static PricingService pricing(Promotion... promotions) {
+        PromotionRepository repository = mock(PromotionRepository.class);
+        when(repository.findByActiveTrue()).thenReturn(List.of(promotions));
+        PricingService pricing = new PricingService(repository, mock(PlatformTransactionManager.class),
+                List.of("0:4900", "20000:2900", "50000:0"), 500, 1800);
+        pricing.reload();
+        return pricing;
+    }
+
+    private static Promotion percent(long id, Long restaurantId, int bps, String code) {
+        Promotion promotion = new Promotion();
+        promotion.setId(id);
+        promotion.setType(Promotion.PERCENT);
+        promotion.setRestaurantId(restaurantId);
+        promotion.setPercentBps(bps);
+        promotion.setCode(code);
+        return promotion;
+    }
+
+    private static Promotion flat(long id, Long restaurantId, long amountPaise, long minSubtotalPaise) {
+        Promotion promotion = new Promotion();
+        promotion.setId(id);
+        promotion.setType(Promotion.FLAT);
+        promotion.setRestaurantId(restaurantId);
+        promotion.setAmountPaise(amountPaise);
+        promotion.setMinSubtotalPaise(minSubtotalPaise);
+        return promotion;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Queue<Runnable> refreshes = new ArrayDeque<>();
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCache<String, String> cache = cache(key -> {
+            loads.incrementAndGet();
+            await(release);
+            return key + "-value";
+        }, Duration.ofHours(1), Duration.ZERO);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> cache.get("k")));
+            }
+            // Everyone but the loader is parked on the in-flight future before it completes
+            waitFor(() -> count("coalesced") == callers - 1);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("k-value");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("k")).isEqualTo("k-value");
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void staleValuesAreServedWhileOneRefreshRuns() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> loads.incrementAndGet(), Duration.ZERO, Duration.ofHours(1));
+
+        assertThat(cache.get("k")).isEqualTo(1);
+        assertThat(cache.get("k")).isEqualTo(1);
+        assertThat(cache.get("k")).isEqualTo(1);
+        assertThat(refreshes).hasSize(1);
+        assertThat(loads).hasValue(1);
+
+        refreshes.poll().run();
+        assertThat(cache.get("k")).isEqualTo(2);
+        assertThat(count("stale")).isEqualTo(3);
+        assertThat(count("refresh")).isEqualTo(1);
+    }
+
+    @Test
+    void aRefreshDoesNotResurrectAnInvalidatedEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> loads.incrementAndGet(), Duration.ZERO, Duration.ofHours(1));
+        cache.get("k");
+        cache.get("k");
+
+        cache.invalidate("k");
+        refreshes.poll().run();
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.get("k")).isEqualTo(3);
+    }
+
+    @Test
+    void expiredValuesAreLoadedInTheForeground() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> loads.incrementAndGet(), Duration.ZERO, Duration.ZERO);
+
+        assertThat(cache.get("k")).isEqualTo(1);
+        assertThat(cache.get("k")).isEqualTo(2);
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void aFailedLoadIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            return loads.get();
+        }, Duration.ofHours(1), Duration.ZERO);
+
+        assertThatThrownBy(() -> cache.get("k")).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get("k")).isEqualTo(2);
+        assertThat(cache.get("k")).isEqualTo(2);
+    }
+
+    @Test
+    void waitersOnAFailedLoadGetItsException() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCache<String, Integer> cache = cache(key -> {
+            if (loads.incrementAndGet() == 1) {
+                await(release);
+                throw new IllegalStateException("database down");
+            }
+            return loads.get();
+        }, Duration.ofHours(1), Duration.ZERO);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> loader = pool.submit(() -> cache.get("k"));
+            waitFor(() -> loads.get() == 1);
+            Future<Integer> waiter = pool.submit(() -> cache.get("k"));
+            waitFor(() -> count("coalesced") == 1);
+            release.countDown();
+
+            assertThatThrownBy(() -> loader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(cache.get("k")).isEqualTo(2);
+    }
+
+    @Test
+    void aFailedRefreshKeepsTheStaleValue() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> {
+            if (loads.incrementAndGet() == 2) {
+                throw new IllegalStateException("database down");
+            }
+            return loads.get();
+        }, Duration.ZERO, Duration.ofHours(1));
+        cache.get("k");
+        cache.get("k");
+
+        refreshes.poll().run();
+
+        assertThat(cache.get("k")).isEqualTo(1);
+        refreshes.poll().run();
+        assertThat(cache.get("k")).isEqualTo(3);
+    }
+
+    @Test
+    void aMissSweepsOutExpiredEntries() {
+        SingleFlightCache<String, String> cache = cache(key -> key + "-value", Duration.ZERO, Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            cache.get("k" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("k0")).isEqualTo("k0-value");
+    }
+
+    @Test
+    void liveEntriesSurviveTheSweep() {
+        SingleFlightCache<String, String> cache = cache(key -> key + "-value", Duration.ofHours(1), Duration.ZERO);
+        cache.get("a");
+        cache.get("b");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo("a-value");
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void nullValuesAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, String> cache = cache(key -> {
+            loads.incrementAndGet();
+            return null;
+        }, Duration.ofHours(1), Duration.ZERO);
+
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void aRefreshThatFindsNothingDropsTheEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<String, Integer> cache = cache(key -> loads.incrementAndGet() == 1 ? 1 : null,
+                Duration.ZERO, Duration.ofHours(1));
+        cache.get("k");
+        cache.get("k");
+
+        refreshes.poll().run();
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private <V> SingleFlightCache<String, V> cache(Function<String, V> loader, Duration freshFor, Duration staleFor) {
+        return new SingleFlightCache<>("test", loader, refreshes::add, freshFor, staleFor, meterRegistry);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("catalog.cache.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTests {
+
+    @Test
+    void reportsEachIdOnTheTickOfItsDeadline() {
+        TimingWheel wheel = new TimingWheel(1_000);
+        wheel.schedule(1, 1_001);
+        wheel.schedule(2, 1_064);
+        wheel.schedule(3, 1_000 + 64 * 64 + 5);
+
+        assertThat(advance(wheel, 1_000)).isEmpty();
+        assertThat(advance(wheel, 1_001)).containsExactly(1L);
+        assertThat(advance(wheel, 1_063)).isEmpty();
+        assertThat(advance(wheel, 1_064)).containsExactly(2L);
+        assertThat(advance(wheel, 1_000 + 64 * 64 + 4)).isEmpty();
+        assertThat(advance(wheel, 1_000 + 64 * 64 + 5)).containsExactly(3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void overdueDeadlinesAreReportedByTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(500);
+        wheel.schedule(7, 10);
+        wheel.schedule(8, 500);
+
+        assertThat(advance(wheel, 501)).containsExactlyInAnyOrder(7L, 8L);
+    }
+
+    @Test
+    void cancelAndRescheduleReplaceTheEarlierDeadline() {
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(1, 10);
+        wheel.schedule(2, 10);
+        wheel.schedule(3, 10);
+
+        assertThat(wheel.cancel(2)).isTrue();
+        assertThat(wheel.cancel(2)).isFalse();
+        wheel.schedule(3, 5_000);
+
+        assertThat(advance(wheel, 10)).containsExactly(1L);
+        assertThat(wheel.contains(3)).isTrue();
+        assertThat(advance(wheel, 4_999)).isEmpty();
+        assertThat(advance(wheel, 5_000)).containsExactly(3L);
+        assertThat(wheel.contains(3)).isFalse();
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelAreParkedAndRefiled() {
+        long span = 1L << 24;
+        TimingWheel wheel = new TimingWheel(0);
+        wheel.schedule(1, span + 100);
+
+        assertThat(advance(wheel, span + 99)).isEmpty();
+        assertThat(advance(wheel, span + 100)).containsExactly(1L);
+    }
+
+    @Test
+    void matchesASimpleModelUnderRandomScheduleCancelAndAdvance() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(0);
+        Map<Long, Long> deadlines = new HashMap<>();
+        long now = 0;
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    // Mostly near deadlines, some a few levels out, some already overdue
+                    long deadline = now + switch (random.nextInt(3)) {
+                        case 0 -> random.nextInt(64);
+                        case 1 -> random.nextInt(300_000);
+                        default -> -random.nextInt(10);
+                    };
+                    wheel.schedule(id, deadline);
+                    deadlines.put(id, deadline);
+                }
+                case 2 -> assertThat(wheel.cancel(id)).isEqualTo(deadlines.remove(id) != null);
+                default -> {
+                    long to = now + 1 + random.nextInt(random.nextBoolean() ? 10 : 20_000);
+                    List<Long> expected = new ArrayList<>();
+                    deadlines.forEach((key, deadline) -> {
+                        if (deadline <= to) {
+                            expected.add(key);
+                        }
+                    });
+                    expected.forEach(deadlines::remove);
+                    assertThat(advance(wheel, to)).containsExactlyInAnyOrderElementsOf(expected);
+                    now = to;
+                }
+            }
+            assertThat(wheel.size()).isEqualTo(deadlines.size());
+        }
+    }
+
+    private static List<Long> advance(TimingWheel wheel, long tick) {
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(tick, expired);
+        return expired;
+    }
+}
@@ -1,10 +1,12 @@
 import { useEffect, useMemo, useState } from 'react'
 import type { ChangeEvent } from 'react'
-import type { CartItem } from '../types'
+import api from '../api'
+import type { CartItem, PriceQuote } from '../types'
 import PaymentModal from './PaymentModal'
 
 interface OrderSummaryProps {
   cart: CartItem[]
+  restaurantId?: number | null
   disabled: boolean
   onQuantityChange: (menuItemId: number, quantity: number) => void
   onRemove: (menuItemId: number) => void
@@ -12,7 +14,7 @@ interface OrderSummaryProps {
   onCheckout: (deliveryAddress?: string, paymentMethod?: string) => Promise<{ paymentQrCode?: string; paymentStatus?: string; orderId?: number }>
 }
 
-export default function OrderSummary({ cart, disabled, onQuantityChange, onRemove, onClear, onCheckout }: OrderSummaryProps) {
+export default function OrderSummary({ cart, restaurantId, disabled, onQuantityChange, onRemove, onClear, onCheckout }: OrderSummaryProps) {
   const [deliveryAddress, setDeliveryAddress] = useState('')
   const [message, setMessage] = useState<string | null>(null)
   const [error, setError] = useState<string | null>(null)
@@ -23,7 +25,35 @@ export default function OrderSummary({ cart, disabled, onQuantityChange, onRemov
     orderId: null 
   })
 
-  const total = useMemo(() => cart.reduce((acc, item) => acc + (item.price ?? 0) * item.quantity, 0), [cart])
+  const [quote, setQuote] = useState<PriceQuote | null>(null)
+
+  const itemTotal = useMemo(() => cart.reduce((acc, item) => acc + (item.price ?? 0) * item.quantity, 0), [cart])
+  // The server's quote includes discounts, delivery fee and GST; the item total is only shown until it arrives
+  const total = quote?.totalAmount ?? itemTotal
+
+  useEffect(() => {
+    if (!restaurantId || cart.length === 0) {
+      setQuote(null)
+      return
+    }
+    let cancelled = false
+    const payload = {
+      restaurantId,
+      items: cart.map((entry) => ({ menuItemId: entry.id, quantity: entry.quantity })),
+    }
+    api
+      .post<PriceQuote>('/orders/quote', payload)
+      .then((response) => {
+        if (!cancelled) setQuote(response.data)
+      })
+      .catch((err) => {
+        console.error('Quote error:', err)
+        if (!cancelled) setQuote(null)
+      })
+    return () => {
+      cancelled = true
+    }
+  }, [cart, restaurantId])
 
   useEffect(() => {
     setError(null)
@@ -156,6 +186,28 @@ export default function OrderSummary({ cart, disabled, onQuantityChange, onRemov
             )
           })}
           <div className="divider" aria-hidden />
+          {quote && (
+            <>
+              <div className="totals">
+                <span>Items</span>
+                <span>${paise(quote.subtotalPaise)}</span>
+              </div>
+              {quote.itemDiscountPaise + quote.orderDiscountPaise > 0 && (
+                <div className="totals">
+                  <span>Discount{quote.promoCode ? ` (${quote.promoCode})` : ''}</span>
+                  <span>-${paise(quote.itemDiscountPaise + quote.orderDiscountPaise)}</span>
+                </div>
+              )}
+              <div className="totals">
+                <span>Delivery fee</span>
+                <span>${paise(quote.deliveryFeePaise)}</span>
+              </div>
+              <div className="totals">
+                <span>GST</span>
+                <span>${paise(quote.taxPaise)}</span>
+              </div>
+            </>
+          )}
           <div className="totals">
             <span>Total</span>
             <strong>${total.toFixed(2)}</strong>
@@ -182,3 +234,7 @@ export default function OrderSummary({ cart, disabled, onQuantityChange, onRemov
     </>
   )
 }
+
+function paise(amount: number) {
+  return (amount / 100).toFixed(2)
+}
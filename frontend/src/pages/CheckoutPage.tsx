@@ -46,6 +46,7 @@ export default function CheckoutPage() {
         </div>
         <OrderSummary
           cart={cart}
+          restaurantId={selectedRestaurant?.id}
           disabled={!hasRestaurant || !canCheckout}
           onQuantityChange={updateQuantity}
           onRemove={removeFromCart}
@@ -20,6 +20,17 @@ export type CartItem = MenuItem & {
   quantity: number
 }
 
+export type PriceQuote = {
+  subtotalPaise: number
+  itemDiscountPaise: number
+  orderDiscountPaise: number
+  promoCode?: string | null
+  deliveryFeePaise: number
+  taxPaise: number
+  totalPaise: number
+  totalAmount: number
+}
+
 export type UserSession = {
   userId: number
   email: string
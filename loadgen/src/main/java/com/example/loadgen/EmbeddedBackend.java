@@ -0,0 +1,120 @@
+package com.example.loadgen;
+
+import org.h2.tools.Server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backend under test: an in-process H2 TCP server holding an in-memory database, and the backend
+ * jar started as a child JVM against it. The generator seeds the same database over JDBC. Rate
+ * limiting is switched off, since the point is to measure the service rather than the limiter.
+ */
+final class EmbeddedBackend implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Server h2;
+    private final Process process;
+    private final String baseUrl;
+    private final String jdbcUrl;
+
+    private EmbeddedBackend(Server h2, Process process, String baseUrl, String jdbcUrl) {
+        this.h2 = h2;
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    static EmbeddedBackend start(Options options) throws IOException, SQLException, InterruptedException {
+        if (!Files.isRegularFile(options.backendJar())) {
+            throw new IllegalArgumentException("backend jar not found: " + options.backendJar()
+                    + " (build it with mvn -DskipTests package in backend, or pass --backend-jar)");
+        }
+        int h2Port = freePort();
+        Server h2 = Server.createTcpServer("-tcpPort", String.valueOf(h2Port), "-ifNotExists").start();
+        String jdbcUrl = "jdbc:h2:tcp://localhost:" + h2Port + "/mem:loadgen;DB_CLOSE_DELAY=-1";
+
+        Path log = Path.of("loadgen-backend.log").toAbsolutePath();
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", options.backendJar().toString(),
+                "--server.port=" + options.port(),
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--app.rate-limit.enabled=false"));
+        command.addAll(options.backendArgs());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        EmbeddedBackend backend = new EmbeddedBackend(h2, process, "http://localhost:" + options.port(), jdbcUrl);
+        Runtime.getRuntime().addShutdownHook(new Thread(backend::close));
+        System.out.printf("Starting backend on port %d (log: %s)%n", options.port(), log);
+        backend.awaitHealthy();
+        return backend;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/test/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("backend exited with code " + process.exitValue()
+                        + "; see loadgen-backend.log");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("backend did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    @Override
+    public void close() {
+        if (process.isAlive()) {
+            process.destroy();
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        h2.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
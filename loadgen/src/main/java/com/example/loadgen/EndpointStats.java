@@ -0,0 +1,84 @@
+package com.example.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measurements for one endpoint, in microseconds. Response time runs from the moment the request
+ * was scheduled to be sent, so time spent queued behind a slow server counts against the server
+ * (no coordinated omission). Service time runs from the actual send and is kept for comparison:
+ * a large gap between the two means the generator or the server could not keep up with the schedule.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST = TimeUnit.MINUTES.toMicros(10);
+
+    private final String endpoint;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long responseNanos, long serviceNanos) {
+        responseTime.recordValue(Math.min(HIGHEST, TimeUnit.NANOSECONDS.toMicros(responseNanos)));
+        serviceTime.recordValue(Math.min(HIGHEST, TimeUnit.NANOSECONDS.toMicros(serviceNanos)));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /** A request that got no response (connection failure or timeout). */
+    void error() {
+        errors.increment();
+    }
+
+    long count() {
+        return responseTime.getTotalCount();
+    }
+
+    static String header() {
+        return String.format("%-38s %8s %8s %8s %8s %8s %9s %9s %9s  %s",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99", "responses");
+    }
+
+    String row(double seconds) {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+        StringBuilder codes = new StringBuilder();
+        byStatus.forEach((status, count) -> codes.append(status).append('=').append(count).append(' '));
+        if (errors.sum() > 0) {
+            codes.append("errors=").append(errors.sum());
+        }
+        return String.format("%-38s %8d %8.1f %8.2f %8.2f %8.2f %9.2f %9.2f %9.2f  %s",
+                endpoint, count(), count() / seconds,
+                millis(responseTime.getValueAtPercentile(50)), millis(responseTime.getValueAtPercentile(90)),
+                millis(responseTime.getValueAtPercentile(99)), millis(responseTime.getValueAtPercentile(99.9)),
+                millis(responseTime.getMaxValue()), millis(serviceTime.getValueAtPercentile(99)),
+                codes.toString().trim());
+    }
+
+    /** Writes the response-time distribution in the .hgrm format read by HdrHistogram's plotter, in milliseconds. */
+    void writeDistribution(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        String name = endpoint.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(name + ".hgrm")))) {
+            responseTime.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
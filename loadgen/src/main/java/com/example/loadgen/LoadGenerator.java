@@ -0,0 +1,194 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator. Request start times come from an arrival schedule (Poisson or constant
+ * at the rate of the traffic profile) and never wait for earlier responses, so a slow server faces
+ * the same arrivals as a fast one. Each request runs on its own virtual thread. If the schedule falls
+ * behind, latency is still measured from the scheduled start. Only requests scheduled after the
+ * warmup are recorded.
+ */
+public final class LoadGenerator {
+
+    private final Options options;
+    private final Workload workload;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+
+    private LoadGenerator(Options options, Workload workload, HttpClient client) {
+        this.options = options;
+        this.workload = workload;
+        this.client = client;
+        for (String endpoint : Workload.ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            if (!"usage".equals(e.getMessage())) {
+                System.err.println(e.getMessage());
+            }
+            System.err.print(Options.usage());
+            System.exit(2);
+            return;
+        }
+
+        EmbeddedBackend backend = options.target() == null ? EmbeddedBackend.start(options) : null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = backend != null ? backend.baseUrl() : options.target().replaceAll("/+$", "");
+            Seeder.Data data = Seeder.seed(backend != null ? backend.jdbcUrl() : options.jdbcUrl(), options);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            long adminId = adminId(client, baseUrl);
+            LoadGenerator generator = new LoadGenerator(options, new Workload(baseUrl, data, adminId, options), client);
+            generator.run(executor);
+            generator.report();
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+        }
+    }
+
+    private void run(ExecutorService executor) throws InterruptedException {
+        long warmupNanos = options.warmup().toNanos();
+        long runNanos = options.duration().toNanos();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        SplittableRandom random = new SplittableRandom(options.seed());
+        long dispatched = 0;
+        long maxLag = 0;
+
+        System.out.printf("Running %s profile, peak %.0f req/s (%s arrivals): %d s warmup, %d s measured%n",
+                options.profile(), options.rate(), options.poisson() ? "Poisson" : "constant",
+                options.warmup().toSeconds(), options.duration().toSeconds());
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + runNanos;
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (next > now) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            long scheduled = next;
+            double rate = options.rateAt(scheduled - measureFrom, runNanos);
+            double gapSeconds = options.poisson() ? -Math.log(1.0 - random.nextDouble()) / rate : 1.0 / rate;
+            next += (long) (gapSeconds * 1e9);
+
+            Workload.Call call = workload.next(random);
+            if (call == null) {
+                skipped.increment();
+                continue;
+            }
+            // Waiting here delays the send, but the wait is still counted from the scheduled start
+            inFlight.acquire();
+            maxLag = Math.max(maxLag, System.nanoTime() - scheduled);
+            boolean measured = scheduled >= measureFrom;
+            if (measured) {
+                dispatched++;
+            }
+            executor.execute(() -> {
+                try {
+                    execute(call, scheduled, measured);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight(), options.timeout().toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.out.println("Some requests were still in flight when the run ended");
+        }
+        System.out.printf("Sent %d measured requests (%.1f req/s on average); dispatcher was at most %.1f ms behind schedule; "
+                        + "%d status steps skipped with no order waiting%n",
+                dispatched, dispatched / (runNanos / 1e9), maxLag / 1e6, skipped.sum());
+    }
+
+    private void execute(Workload.Call call, long scheduled, boolean measured) {
+        EndpointStats endpoint = stats.get(call.endpoint());
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+            long done = System.nanoTime();
+            if (measured) {
+                endpoint.record(response.statusCode(), done - scheduled, done - sent);
+            }
+            if (response.statusCode() / 100 == 2 && call.onSuccess() != null) {
+                call.onSuccess().accept(response);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                endpoint.error();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report() throws IOException {
+        double seconds = options.duration().toNanos() / 1e9;
+        long total = 0;
+        System.out.println();
+        System.out.println("Response time from scheduled start; svc p99 is measured from the actual send.");
+        System.out.println(EndpointStats.header());
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.count() > 0) {
+                System.out.println(endpoint.row(seconds));
+                total += endpoint.count();
+            }
+            if (options.histograms() != null) {
+                endpoint.writeDistribution(options.histograms());
+            }
+        }
+        System.out.printf("%nThroughput: %d responses in %.0f s, %.1f req/s%n", total, seconds, total / seconds);
+        if (options.histograms() != null) {
+            System.out.println("Histograms written to " + options.histograms().toAbsolutePath());
+        }
+    }
+
+    /** Logs in as the demo admin. Retried because the backend may still be seeding its demo accounts. */
+    private static long adminId(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"admin@example.com\",\"password\":\"admin123\"}"))
+                .build();
+        for (int attempt = 0; attempt < 60; attempt++) {
+            HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                long userId = objectMapper.readTree(response.body()).path("userId").asLong();
+                if (userId > 0) {
+                    return userId;
+                }
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("could not log in as admin@example.com");
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Arguments after a bare {@code --} are passed
+ * to the embedded backend unchanged (for example {@code -- --spring.profiles.active=faststart}).
+ */
+record Options(String target,
+               String jdbcUrl,
+               Path backendJar,
+               int port,
+               List<String> backendArgs,
+               double rate,
+               double baseRate,
+               String profile,
+               boolean poisson,
+               Duration warmup,
+               Duration duration,
+               Duration timeout,
+               int maxInFlight,
+               Map<String, Integer> mix,
+               int restaurants,
+               int itemsPerRestaurant,
+               int users,
+               int drivers,
+               double skew,
+               long seed,
+               Path histograms) {
+
+    static final String DEFAULT_MIX = "restaurants:25,menu:40,order:15,status:15,admin:5";
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> backendArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--")) {
+                backendArgs.addAll(List.of(args).subList(i + 1, args.length));
+                break;
+            }
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        if (values.containsKey("help")) {
+            throw new IllegalArgumentException("usage");
+        }
+
+        double rate = number(values.remove("rate"), 50);
+        Options options = new Options(
+                values.remove("target"),
+                values.remove("jdbc-url"),
+                Path.of(values.getOrDefault("backend-jar", "../backend/target/backend-0.0.1-SNAPSHOT.jar")),
+                (int) number(values.remove("port"), 18080),
+                backendArgs,
+                rate,
+                number(values.remove("base-rate"), rate / 4),
+                values.getOrDefault("profile", "lunch"),
+                !"constant".equals(values.getOrDefault("arrival", "poisson")),
+                duration(values.remove("warmup"), Duration.ofSeconds(15)),
+                duration(values.remove("duration"), Duration.ofSeconds(60)),
+                duration(values.remove("timeout"), Duration.ofSeconds(30)),
+                (int) number(values.remove("max-in-flight"), 2000),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                (int) number(values.remove("restaurants"), 2000),
+                (int) number(values.remove("items-per-restaurant"), 15),
+                (int) number(values.remove("users"), 10000),
+                (int) number(values.remove("drivers"), 1000),
+                number(values.remove("skew"), 2.0),
+                (long) number(values.remove("seed"), 42),
+                values.containsKey("histograms") ? Path.of(values.get("histograms")) : null);
+        values.keySet().removeAll(List.of("backend-jar", "profile", "arrival", "mix", "histograms"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("unknown option: --" + values.keySet().iterator().next());
+        }
+        if (!options.profile.equals("lunch") && !options.profile.equals("flat")) {
+            throw new IllegalArgumentException("--profile must be lunch or flat");
+        }
+        if (options.rate <= 0 || options.baseRate <= 0 || options.maxInFlight < 1) {
+            throw new IllegalArgumentException("--rate, --base-rate and --max-in-flight must be positive");
+        }
+        if (options.target != null && options.jdbcUrl == null) {
+            throw new IllegalArgumentException("--target needs --jdbc-url so the generator can seed the database");
+        }
+        return options;
+    }
+
+    /**
+     * Requests per second wanted at the given offset into the measured run. The lunch profile rises
+     * from the base rate to the peak rate at the middle of the run and falls back; warmup runs at the base rate.
+     */
+    double rateAt(long nanosIntoRun, long runNanos) {
+        if (profile.equals("flat")) {
+            return rate;
+        }
+        if (nanosIntoRun <= 0) {
+            return baseRate;
+        }
+        double phase = Math.min(1.0, (double) nanosIntoRun / runNanos);
+        return baseRate + (rate - baseRate) * Math.sin(Math.PI * phase);
+    }
+
+    static String usage() {
+        return """
+                Usage: java -jar loadgen.jar [options] [-- backend args]
+
+                Target (default: start ../backend/target/backend-*.jar against an embedded H2 server)
+                  --backend-jar=PATH          backend jar to start
+                  --port=18080                HTTP port for the embedded backend
+                  --target=URL --jdbc-url=URL drive a running backend instead and seed through JDBC
+
+                Traffic
+                  --rate=50                   peak requests per second
+                  --base-rate=RATE/4          rate at the edges of the lunch profile and during warmup
+                  --profile=lunch|flat        lunch ramps base -> peak -> base over the run
+                  --arrival=poisson|constant  inter-arrival times
+                  --mix=%s
+                  --warmup=15s --duration=60s --timeout=30s --max-in-flight=2000
+                  --skew=2.0                  restaurant popularity (1 = uniform, higher = hotter head)
+
+                Seed data
+                  --restaurants=2000 --items-per-restaurant=15 --users=10000 --drivers=1000 --seed=42
+
+                Output
+                  --histograms=DIR            write one .hgrm percentile file per endpoint
+                """.formatted(DEFAULT_MIX);
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            String name = pair[0].trim().toLowerCase(Locale.ROOT);
+            if (!Workload.NAMES.contains(name)) {
+                throw new IllegalArgumentException("unknown operation in --mix: " + name + " (one of " + Workload.NAMES + ")");
+            }
+            int weight = pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put(name, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+
+    private static double number(String value, double fallback) {
+        return value == null ? fallback : Double.parseDouble(value);
+    }
+
+    private static Duration duration(String value, Duration fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v.endsWith("s") ? v.substring(0, v.length() - 1) : v));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.loadgen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk-loads restaurants with menus, customers and drivers straight into the backend's tables with
+ * JDBC batches; going through the API would spend most of the time hashing passwords. Ids are small
+ * sequential numbers, far below the backend's time-ordered ids, so they never collide with rows the
+ * backend creates. Seeding is skipped if the rows are already there, so a database can be reused
+ * across runs; either way the ids are read back for the traffic model.
+ */
+final class Seeder {
+
+    // BCrypt of "password", the same hash the backend's demo seed uses
+    private static final String PASSWORD_HASH = "$2a$10$474ruIHNle77/OlhqUAJ4uB4c4f3DqR1yE.RUanUS8yx893eOro6K";
+    private static final String[] CUISINES = {
+            "North Indian", "South Indian", "Chinese", "Italian", "Biryani", "Street Food", "Desserts", "Cafe"};
+    private static final int BATCH = 1000;
+
+    record Driver(long userId, long driverId) {
+    }
+
+    record Data(long[] restaurantIds, long[][] menuItemIds, long[] userIds, Driver[] drivers) {
+    }
+
+    private Seeder() {
+    }
+
+    static Data seed(String jdbcUrl, Options options) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) {
+            connection.setAutoCommit(false);
+            if (!alreadySeeded(connection)) {
+                long started = System.nanoTime();
+                insert(connection, options);
+                connection.commit();
+                System.out.printf("Seeded %d restaurants, %d menu items, %d users and %d drivers in %.1f s%n",
+                        options.restaurants(), (long) options.restaurants() * options.itemsPerRestaurant(),
+                        options.users(), options.drivers(), (System.nanoTime() - started) / 1e9);
+            } else {
+                System.out.println("Seed data already present; reusing it");
+            }
+            return load(connection);
+        }
+    }
+
+    private static boolean alreadySeeded(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM users WHERE email = ?")) {
+            statement.setString(1, "load-user-1@example.com");
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+
+    private static void insert(Connection connection, Options options) throws SQLException {
+        Random random = new Random(options.seed());
+        long nextId = 1;
+
+        try (PreparedStatement restaurant = connection.prepareStatement(
+                "INSERT INTO restaurants (id, name, cuisine, address, contact, rating) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement item = connection.prepareStatement(
+                     "INSERT INTO menu_items (id, name, description, price, restaurant_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (int r = 1; r <= options.restaurants(); r++) {
+                long restaurantId = nextId++;
+                String cuisine = CUISINES[random.nextInt(CUISINES.length)];
+                restaurant.setLong(1, restaurantId);
+                restaurant.setString(2, "Load Restaurant " + r);
+                restaurant.setString(3, cuisine);
+                restaurant.setString(4, r + " Load Street");
+                restaurant.setString(5, "+91-90000" + String.format("%05d", r % 100000));
+                restaurant.setDouble(6, 3.0 + random.nextInt(21) / 10.0);
+                restaurant.addBatch();
+                for (int i = 1; i <= options.itemsPerRestaurant(); i++) {
+                    item.setLong(1, nextId++);
+                    item.setString(2, cuisine + " dish " + i);
+                    item.setString(3, "Load test item " + i + " of restaurant " + r);
+                    item.setDouble(4, 80 + random.nextInt(38) * 10);
+                    item.setLong(5, restaurantId);
+                    item.addBatch();
+                }
+                if (r % 100 == 0) {
+                    restaurant.executeBatch();
+                    item.executeBatch();
+                }
+            }
+            restaurant.executeBatch();
+            item.executeBatch();
+        }
+
+        try (PreparedStatement user = connection.prepareStatement(
+                "INSERT INTO users (id, name, email, password, phone, address) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement role = connection.prepareStatement(
+                     "INSERT INTO user_roles (user_id, role_name) VALUES (?, ?)");
+             PreparedStatement driver = connection.prepareStatement(
+                     "INSERT INTO delivery_drivers (id, name, contact, available, user_id) VALUES (?, ?, ?, TRUE, ?)")) {
+            for (int u = 1; u <= options.users(); u++) {
+                long userId = nextId++;
+                addUser(user, role, userId, "Load User " + u, "load-user-" + u + "@example.com", "ROLE_USER");
+                if (u % BATCH == 0) {
+                    user.executeBatch();
+                    role.executeBatch();
+                }
+            }
+            for (int d = 1; d <= options.drivers(); d++) {
+                long userId = nextId++;
+                String name = "Load Driver " + d;
+                addUser(user, role, userId, name, "load-driver-" + d + "@example.com", "ROLE_DRIVER");
+                driver.setLong(1, nextId++);
+                driver.setString(2, name);
+                driver.setString(3, "+91-80000" + String.format("%05d", d % 100000));
+                driver.setLong(4, userId);
+                driver.addBatch();
+                if (d % BATCH == 0) {
+                    user.executeBatch();
+                    role.executeBatch();
+                    driver.executeBatch();
+                }
+            }
+            user.executeBatch();
+            role.executeBatch();
+            driver.executeBatch();
+        }
+    }
+
+    private static void addUser(PreparedStatement user, PreparedStatement role,
+                                long id, String name, String email, String roleName) throws SQLException {
+        user.setLong(1, id);
+        user.setString(2, name);
+        user.setString(3, email);
+        user.setString(4, PASSWORD_HASH);
+        user.setString(5, "+91-70000" + String.format("%05d", id % 100000));
+        user.setString(6, id + " Load Avenue");
+        user.addBatch();
+        role.setLong(1, id);
+        role.setString(2, roleName);
+        role.addBatch();
+    }
+
+    private static Data load(Connection connection) throws SQLException {
+        Map<Long, List<Long>> menus = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT r.id, m.id FROM restaurants r JOIN menu_items m ON m.restaurant_id = r.id "
+                        + "WHERE r.name LIKE 'Load Restaurant %' ORDER BY r.id, m.id");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                menus.computeIfAbsent(rows.getLong(1), id -> new ArrayList<>()).add(rows.getLong(2));
+            }
+        }
+        long[] restaurantIds = new long[menus.size()];
+        long[][] menuItemIds = new long[menus.size()][];
+        int i = 0;
+        for (Map.Entry<Long, List<Long>> entry : menus.entrySet()) {
+            restaurantIds[i] = entry.getKey();
+            menuItemIds[i++] = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<Long> userIds = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM users WHERE email LIKE 'load-user-%' ORDER BY id");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                userIds.add(rows.getLong(1));
+            }
+        }
+
+        List<Driver> drivers = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT d.user_id, d.id FROM delivery_drivers d JOIN users u ON u.id = d.user_id "
+                        + "WHERE u.email LIKE 'load-driver-%' ORDER BY d.id");
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                drivers.add(new Driver(rows.getLong(1), rows.getLong(2)));
+            }
+        }
+        if (restaurantIds.length == 0 || userIds.isEmpty() || drivers.isEmpty()) {
+            throw new IllegalStateException("seed data is incomplete: " + restaurantIds.length + " restaurants with menus, "
+                    + userIds.size() + " users, " + drivers.size() + " drivers");
+        }
+        return new Data(restaurantIds, menuItemIds, userIds.stream().mapToLong(Long::longValue).toArray(),
+                drivers.toArray(Driver[]::new));
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.loadgen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Turns the operation mix into concrete requests against the seeded data.
+ * <ul>
+ *   <li>{@code restaurants}: the catalog listing.</li>
+ *   <li>{@code menu}: one restaurant's menu. Restaurants are picked with a popularity skew, so a few
+ *       restaurants get most of the traffic, as at lunch.</li>
+ *   <li>{@code order}: a customer orders one to three dishes from one restaurant, cash or UPI.</li>
+ *   <li>{@code status}: moves one placed order a step through delivery. An admin assigns a driver
+ *       and confirms it, then the driver marks it preparing, out for delivery and delivered, one call
+ *       per operation. Skipped while no placed order is waiting.</li>
+ *   <li>{@code admin}: the admin order list.</li>
+ * </ul>
+ * Calls are built on the dispatcher thread; response callbacks run on the request threads.
+ */
+final class Workload {
+
+    static final List<String> NAMES = List.of("restaurants", "menu", "order", "status", "admin");
+
+    static final String LIST_RESTAURANTS = "GET /api/restaurants";
+    static final String MENU = "GET /api/restaurants/{id}/menu";
+    static final String PLACE_ORDER = "POST /api/orders";
+    static final String ASSIGN_DRIVER = "PATCH /api/admin/orders/{id}";
+    static final String DRIVER_STATUS = "PATCH /api/driver/orders/{id}/status";
+    static final String ADMIN_ORDERS = "GET /api/admin/orders";
+    static final List<String> ENDPOINTS = List.of(
+            LIST_RESTAURANTS, MENU, PLACE_ORDER, ASSIGN_DRIVER, DRIVER_STATUS, ADMIN_ORDERS);
+
+    private static final String[] DRIVER_STEPS = {"PREPARING", "OUT_FOR_DELIVERY", "DELIVERED"};
+
+    record Call(String endpoint, HttpRequest request, Consumer<HttpResponse<String>> onSuccess) {
+    }
+
+    /** A placed order on its way through delivery; held by at most one in-flight call at a time. */
+    private static final class Delivery {
+        final long orderId;
+        final Seeder.Driver driver;
+        int step;
+
+        Delivery(long orderId, Seeder.Driver driver) {
+            this.orderId = orderId;
+            this.driver = driver;
+        }
+    }
+
+    private final String baseUrl;
+    private final Seeder.Data data;
+    private final long adminId;
+    private final double skew;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private final ConcurrentLinkedQueue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+
+    Workload(String baseUrl, Seeder.Data data, long adminId, Options options) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.adminId = adminId;
+        this.skew = options.skew();
+        this.timeout = options.timeout();
+        this.operations = options.mix().keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * The next call of the mix, or null if the drawn operation has nothing to do right now.
+     */
+    Call next(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (draw >= cumulativeWeights[index]) {
+            index++;
+        }
+        return switch (operations[index]) {
+            case "restaurants" -> new Call(LIST_RESTAURANTS, get("/api/restaurants"), null);
+            case "menu" -> new Call(MENU, get("/api/restaurants/" + data.restaurantIds()[restaurant(random)] + "/menu"), null);
+            case "order" -> placeOrder(random);
+            case "status" -> advanceDelivery();
+            case "admin" -> new Call(ADMIN_ORDERS, get("/api/admin/orders?userId=" + adminId), null);
+            default -> throw new IllegalStateException(operations[index]);
+        };
+    }
+
+    private Call placeOrder(SplittableRandom random) {
+        int restaurant = restaurant(random);
+        long[] menu = data.menuItemIds()[restaurant];
+        int dishes = 1 + random.nextInt(Math.min(3, menu.length));
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        while (quantities.size() < dishes) {
+            quantities.putIfAbsent(menu[random.nextInt(menu.length)], 1 + random.nextInt(2));
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        quantities.forEach((id, quantity) -> items.add(Map.of("menuItemId", id, "quantity", quantity)));
+        long userId = data.userIds()[random.nextInt(data.userIds().length)];
+        Seeder.Driver driver = data.drivers()[random.nextInt(data.drivers().length)];
+        Map<String, Object> body = Map.of(
+                "userId", userId,
+                "restaurantId", data.restaurantIds()[restaurant],
+                "paymentMethod", random.nextBoolean() ? "COD" : "UPI",
+                "deliveryAddress", userId + " Load Avenue",
+                "items", items);
+        return new Call(PLACE_ORDER, send("POST", "/api/orders", body), response -> {
+            long orderId = readLong(response.body(), "orderId");
+            if (orderId > 0) {
+                deliveries.add(new Delivery(orderId, driver));
+            }
+        });
+    }
+
+    private Call advanceDelivery() {
+        Delivery delivery = deliveries.poll();
+        if (delivery == null) {
+            return null;
+        }
+        // Failed steps are not retried: the order simply leaves the pipeline
+        Consumer<HttpResponse<String>> advanced = response -> {
+            delivery.step++;
+            if (delivery.step <= DRIVER_STEPS.length) {
+                deliveries.add(delivery);
+            }
+        };
+        if (delivery.step == 0) {
+            return new Call(ASSIGN_DRIVER, send("PATCH", "/api/admin/orders/" + delivery.orderId + "?userId=" + adminId,
+                    Map.of("driverId", delivery.driver.driverId(), "status", "CONFIRMED")), advanced);
+        }
+        return new Call(DRIVER_STATUS,
+                send("PATCH", "/api/driver/orders/" + delivery.orderId + "/status?userId=" + delivery.driver.userId(),
+                        Map.of("status", DRIVER_STEPS[delivery.step - 1])), advanced);
+    }
+
+    /** Index of a restaurant; with skew s, index = n * u^s puts more draws on the first restaurants. */
+    private int restaurant(SplittableRandom random) {
+        int n = data.restaurantIds().length;
+        return Math.min(n - 1, (int) (n * Math.pow(random.nextDouble(), skew)));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long readLong(String json, String field) {
+        try {
+            return objectMapper.readTree(json).path(field).asLong();
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+}